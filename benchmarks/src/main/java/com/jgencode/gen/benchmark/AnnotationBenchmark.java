@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.benchmark;
+
+import com.jgencode.gen.type.AnnotationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code AnnotationType.createSourceLines()} of an annotation with attributes
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnnotationBenchmark {
+
+    private AnnotationType annotationType;
+
+    /**
+     *
+     */
+    @Setup
+    public void setup() {
+        annotationType = BenchmarkModels.createAnnotation();
+    }
+
+    /**
+     *
+     * @return the source lines
+     */
+    @Benchmark
+    public List<String> createSourceLines() {
+        return annotationType.createSourceLines();
+    }
+}
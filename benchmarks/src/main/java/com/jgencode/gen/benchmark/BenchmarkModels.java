@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.benchmark;
+
+import com.jgencode.gen.ClassDefinitionBuilder;
+import com.jgencode.gen.DefinitionBuilder;
+import com.jgencode.gen.FieldDefinitionBuilder;
+import com.jgencode.gen.FieldDefinitionBuilder.FieldDefinition;
+import com.jgencode.gen.type.AnnotationType;
+import com.jgencode.gen.type.AnnotationTypeBuilder;
+import com.jgencode.gen.type.ClassTypeBuilder;
+import com.jgencode.gen.values.Modifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Models shared by the benchmarks
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+final class BenchmarkModels {
+
+    private BenchmarkModels() {
+    }
+
+    /**
+     * Fields of native and class types, with getter and setter
+     *
+     * @param count number of fields
+     * @return the fields
+     */
+    static List<FieldDefinition> createFields(int count) {
+        List<FieldDefinition> fields = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var builder = FieldDefinitionBuilder.createBuilder()
+                    .fieldName("field" + i)
+                    .addModifier(Modifier.PRIVATE)
+                    .getter(true)
+                    .setter(true);
+            if (i % 2 == 0) {
+                builder.nativeType("int");
+            } else {
+                builder.classType(ClassTypeBuilder.newBuilder().packageName("java.util").className("UUID").build());
+            }
+            fields.add(builder.build());
+        }
+        return fields;
+    }
+
+    /**
+     * Fields whose types are all in different packages, so every field adds an import
+     *
+     * @param count number of fields
+     * @return the fields
+     */
+    static List<FieldDefinition> createImportingFields(int count) {
+        List<FieldDefinition> fields = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            fields.add(FieldDefinitionBuilder.createBuilder()
+                    .fieldName("field" + i)
+                    .addModifier(Modifier.PRIVATE)
+                    .classType(ClassTypeBuilder.newBuilder()
+                            .packageName("com.example.imports.p" + i)
+                            .className("Type" + i)
+                            .build())
+                    .build());
+        }
+        return fields;
+    }
+
+    /**
+     * A class builder with the given fields
+     *
+     * @param packageName package of the class
+     * @param className name of the class
+     * @param fields fields of the class
+     * @return the class builder
+     */
+    static ClassDefinitionBuilder createClassBuilder(String packageName, String className,
+            List<FieldDefinition> fields) {
+        var builder = DefinitionBuilder.createClassBuilder(packageName, className);
+        builder.addModifier(Modifier.PUBLIC);
+        builder.addFields(fields);
+        return builder;
+    }
+
+    /**
+     * An annotation with attributes of every kind
+     *
+     * @return the annotation
+     */
+    static AnnotationType createAnnotation() {
+        return AnnotationTypeBuilder.newBuilder()
+                .classType(ClassTypeBuilder.newBuilder().packageName("jakarta.persistence").className("Table").build())
+                .addAttribute("name", "person")
+                .addAttribute("schema", "public")
+                .addAttribute("size", 10)
+                .addAttribute("enabled", true)
+                .addAttribute("type", ClassTypeBuilder.newBuilder().packageName("java.util").className("UUID").build())
+                .build();
+    }
+}
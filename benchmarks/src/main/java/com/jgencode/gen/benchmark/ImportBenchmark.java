@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.benchmark;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.FieldDefinitionBuilder.FieldDefinition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import collection of a class whose fields use hundreds of types of different packages. The fields have no
+ * accessors, so the build is dominated by the {@code ImportResolver}.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportBenchmark {
+
+    @Param({"100", "500"})
+    int importCount;
+
+    private List<FieldDefinition> fields;
+
+    /**
+     *
+     */
+    @Setup
+    public void setup() {
+        fields = BenchmarkModels.createImportingFields(importCount);
+    }
+
+    /**
+     *
+     * @return the definition
+     */
+    @Benchmark
+    public Definition importClasses() {
+        return BenchmarkModels.createClassBuilder("com.example.model", "Imports", fields).build();
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.benchmark;
+
+import com.jgencode.gen.GenerationBatchBuilder;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * End to end benchmark: synthesizes a model, builds and writes all of it, and compares the wall time, peak heap,
+ * allocated bytes and files per second with a baseline. The process exits with status 1 when a metric is worse than
+ * the baseline by more than the threshold.
+ * <p>
+ * The numbers depend on the machine, so no baseline is shipped: record one with {@code --update-baseline} on the
+ * machine that runs the comparison, for example from the commit before a change. A baseline recorded with other
+ * processors, threads or maximum heap is not compared.
+ * <p>
+ * Options: {@code --packages}, {@code --classes}, {@code --fields}, {@code --methods}, {@code --threads},
+ * {@code --baseline <file>}, {@code --threshold <percent>}, {@code --result <file>} and {@code --update-baseline}.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class MacroBenchmark {
+
+    private static final Pattern JSON_NUMBER = Pattern.compile("\"(\\w+)\"\\s*:\\s*(-?[0-9.eE+-]+)");
+
+    private static final String WALL_TIME = "wallTimeMillis";
+    private static final String PEAK_HEAP = "peakHeapBytes";
+    private static final String ALLOCATED = "allocatedBytes";
+    private static final String FILES_PER_SECOND = "filesPerSecond";
+    private static final String DEFINITIONS = "definitions";
+    private static final String PROCESSORS = "processors";
+    private static final String THREADS = "threads";
+    private static final String MAX_HEAP = "maxHeapBytes";
+
+    /**
+     * Values that must be the same in the baseline and the result to compare them
+     */
+    private static final List<String> ENVIRONMENT = List.of(DEFINITIONS, PROCESSORS, THREADS, MAX_HEAP);
+
+    private MacroBenchmark() {
+    }
+
+    /**
+     *
+     * @param args the options
+     * @throws IOException if the files can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        var options = parseOptions(args);
+        var model = new SyntheticModel(
+                Integer.parseInt(options.getOrDefault("packages", "100")),
+                Integer.parseInt(options.getOrDefault("classes", "1000")),
+                Integer.parseInt(options.getOrDefault("fields", "10")),
+                Integer.parseInt(options.getOrDefault("methods", "5")));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        var baselinePath = Paths.get(options.getOrDefault("baseline", "macro-baseline.json"));
+        var resultPath = Paths.get(options.getOrDefault("result", "target/macro-result.json"));
+        double threshold = Double.parseDouble(options.getOrDefault("threshold", "10")) / 100.0;
+
+        System.out.printf("model: %s%n", model.describe());
+        var result = run(model, threads);
+        result.forEach((name, value) -> System.out.printf("%-16s %,.1f%n", name, value));
+        if (resultPath.getParent() != null) {
+            Files.createDirectories(resultPath.getParent());
+        }
+        Files.writeString(resultPath, toJson(result));
+
+        if (options.containsKey("update-baseline")) {
+            Files.writeString(baselinePath, toJson(result));
+            System.out.printf("baseline updated: %s%n", baselinePath);
+            return;
+        }
+        if (!Files.isRegularFile(baselinePath)) {
+            System.out.printf("no baseline at %s, record one on this machine with --update-baseline%n",
+                    baselinePath);
+            return;
+        }
+        var baseline = parseJson(Files.readString(baselinePath));
+        for (String name : ENVIRONMENT) {
+            if (!result.get(name).equals(baseline.get(name))) {
+                System.out.printf("the baseline was recorded with %s %,.0f instead of %,.0f, not compared%n",
+                        name, baseline.get(name), result.get(name));
+                return;
+            }
+        }
+        boolean regression = false;
+        regression |= isRegression(WALL_TIME, result, baseline, threshold, true);
+        regression |= isRegression(PEAK_HEAP, result, baseline, threshold, true);
+        regression |= isRegression(ALLOCATED, result, baseline, threshold, true);
+        regression |= isRegression(FILES_PER_SECOND, result, baseline, threshold, false);
+        if (regression) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Double> run(SyntheticModel model, int threads) throws IOException {
+        var destinationPath = Files.createTempDirectory("jgencode-macro");
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var workerAllocated = new LongAdder();
+        var pool = new ForkJoinPool(threads, forkJoinPool -> new MeasuredWorkerThread(forkJoinPool, threadBean,
+                workerAllocated), null, false);
+        try (var heapPeak = new HeapPeakTracker()) {
+            System.gc();
+            heapPeak.start();
+            long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+
+            var builders = model.createBuilders();
+            var batchResult = GenerationBatchBuilder.createBuilder(destinationPath)
+                    .addDefinitionBuilders(builders)
+                    .executor(pool)
+                    .build()
+                    .run();
+
+            long wallTime = System.nanoTime() - start;
+            long peakHeap = heapPeak.getPeak();
+            long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            // the workers report their allocation when they terminate
+            pool.shutdown();
+            awaitTermination(pool);
+            allocated += workerAllocated.sum();
+            if (batchResult.hasFailures()) {
+                throw new IllegalStateException(batchResult.getFailures().size() + " definitions failed",
+                        batchResult.getFailures().get(0).getError());
+            }
+            Map<String, Double> result = new LinkedHashMap<>();
+            result.put(DEFINITIONS, (double) model.getDefinitionCount());
+            result.put(PROCESSORS, (double) Runtime.getRuntime().availableProcessors());
+            result.put(THREADS, (double) threads);
+            result.put(MAX_HEAP, (double) Runtime.getRuntime().maxMemory());
+            result.put(WALL_TIME, wallTime / 1_000_000.0);
+            result.put(PEAK_HEAP, (double) peakHeap);
+            result.put(ALLOCATED, (double) allocated);
+            result.put(FILES_PER_SECOND, model.getDefinitionCount() / (wallTime / 1_000_000_000.0));
+            return result;
+        } finally {
+            pool.shutdown();
+            delete(destinationPath);
+        }
+    }
+
+    private static void awaitTermination(ForkJoinPool pool) {
+        try {
+            if (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("the worker threads did not finish");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the worker threads", ex);
+        }
+    }
+
+    private static boolean isRegression(String name, Map<String, Double> result, Map<String, Double> baseline,
+            double threshold, boolean lowerIsBetter) {
+        Double expected = baseline.get(name);
+        if (expected == null || expected == 0) {
+            return false;
+        }
+        double actual = result.get(name);
+        double change = (actual - expected) / expected;
+        boolean regression = lowerIsBetter ? change > threshold : -change > threshold;
+        System.out.printf("%-16s baseline %,.1f, now %,.1f (%+.1f%%)%s%n", name, expected, actual, change * 100,
+                regression ? " REGRESSION" : "");
+        return regression;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("unknown argument: " + args[i]);
+            }
+            var name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "true");
+            }
+        }
+        return options;
+    }
+
+    private static Map<String, Double> parseJson(String json) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        var matcher = JSON_NUMBER.matcher(json);
+        while (matcher.find()) {
+            values.put(matcher.group(1), Double.valueOf(matcher.group(2)));
+        }
+        return values;
+    }
+
+    private static String toJson(Map<String, Double> values) {
+        return values.entrySet().stream()
+                .map(entry -> String.format(Locale.ROOT, "  \"%s\": %.1f", entry.getKey(), entry.getValue()))
+                .collect(Collectors.joining("," + System.lineSeparator(), "{" + System.lineSeparator(),
+                        System.lineSeparator() + "}" + System.lineSeparator()));
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Worker that adds the bytes it allocated to a counter when it terminates, so the workers that the pool retires
+     * during the run are counted too
+     */
+    private static final class MeasuredWorkerThread extends ForkJoinWorkerThread {
+
+        private final com.sun.management.ThreadMXBean threadBean;
+        private final LongAdder allocated;
+
+        private MeasuredWorkerThread(ForkJoinPool pool, com.sun.management.ThreadMXBean threadBean,
+                LongAdder allocated) {
+            super(pool);
+            this.threadBean = threadBean;
+            this.allocated = allocated;
+        }
+
+        @Override
+        protected void onTermination(Throwable exception) {
+            allocated.add(threadBean.getCurrentThreadAllocatedBytes());
+            super.onTermination(exception);
+        }
+    }
+
+    /**
+     * Peak of the whole heap. The used heap only goes down in a collection, so its peak is either the heap used
+     * before one of the collections of the run, adding up the heap pools at that moment, or the heap used at the end.
+     * Adding up the peak of each pool would count memory that was never used at the same time.
+     */
+    private static final class HeapPeakTracker implements NotificationListener, AutoCloseable {
+
+        private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(memoryPool -> memoryPool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getName)
+                .collect(Collectors.toSet());
+        private final LongAccumulator peak = new LongAccumulator(Math::max, 0);
+        private boolean started;
+
+        private void start() {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) collector).addNotificationListener(this, null, null);
+            }
+            started = true;
+            peak.accumulate(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            peak.accumulate(info.getGcInfo().getMemoryUsageBeforeGc().entrySet().stream()
+                    .filter(entry -> heapPools.contains(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .mapToLong(MemoryUsage::getUsed)
+                    .sum());
+        }
+
+        private long getPeak() {
+            peak.accumulate(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+            return peak.get();
+        }
+
+        @Override
+        public void close() {
+            if (!started) {
+                return;
+            }
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(this);
+                } catch (ListenerNotFoundException ex) {
+                    // never added
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.benchmark;
+
+import com.jgencode.gen.MethodDefinitionBuilder;
+import com.jgencode.gen.MethodDefinitionBuilder.MethodDefinition;
+import com.jgencode.gen.ParameterDefinition;
+import com.jgencode.gen.ParameterDefinitionBuilder;
+import com.jgencode.gen.type.ClassType;
+import com.jgencode.gen.type.ClassTypeBuilder;
+import com.jgencode.gen.values.Modifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code MethodDefinitionBuilder.build()} of a method with a large body
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MethodBuildBenchmark {
+
+    @Param({"10", "1000"})
+    int bodyLines;
+
+    private String body;
+    private ClassType returnType;
+    private ParameterDefinition parameter;
+
+    /**
+     *
+     */
+    @Setup
+    public void setup() {
+        var bodyBuilder = new StringBuilder();
+        for (int i = 0; i < bodyLines; i++) {
+            bodyBuilder.append("values.put(\"key").append(i).append("\", ").append(i).append(");")
+                    .append(System.lineSeparator());
+        }
+        body = bodyBuilder.toString();
+        returnType = ClassTypeBuilder.newBuilder().packageName("java.util").className("Map<String, Integer>").build();
+        parameter = ParameterDefinitionBuilder.newBuilder()
+                .parameterName("values")
+                .parameterType(returnType)
+                .build();
+    }
+
+    /**
+     *
+     * @return the method definition
+     */
+    @Benchmark
+    public MethodDefinition build() {
+        return MethodDefinitionBuilder.createBuilder()
+                .name("fill")
+                .addModifier(Modifier.PUBLIC)
+                .returnClassType(returnType)
+                .addParameter(parameter)
+                .body(body)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.benchmark;
+
+import com.jgencode.gen.ClassDefinitionBuilder;
+import com.jgencode.gen.ConstructorDefinitionBuilder;
+import com.jgencode.gen.ConstructorDefinitionBuilder.ConstructorDefinition;
+import com.jgencode.gen.DefinitionBuilder;
+import com.jgencode.gen.MethodDefinitionBuilder;
+import com.jgencode.gen.MethodDefinitionBuilder.MethodDefinition;
+import com.jgencode.gen.ParameterDefinitionBuilder;
+import com.jgencode.gen.type.ClassTypeBuilder;
+import com.jgencode.gen.values.Modifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds many DAO classes that share the same constructor and method definitions, as a generator that adds
+ * {@code findById}, {@code save} and {@code delete} to every entity does.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedMemberBenchmark {
+
+    @Param({"1000"})
+    int classCount;
+
+    private ConstructorDefinition constructor;
+    private List<MethodDefinition> methods;
+
+    /**
+     *
+     */
+    @Setup
+    public void setup() {
+        var entityManager = ClassTypeBuilder.newBuilder().packageName("jakarta.persistence")
+                .className("EntityManager").build();
+        constructor = ConstructorDefinitionBuilder.createBuilder()
+                .addModifier(Modifier.PUBLIC)
+                .addParameter(ParameterDefinitionBuilder.newBuilder().parameterName("entityManager")
+                        .parameterType(entityManager).build())
+                .body("this.entityManager = entityManager;")
+                .build();
+        var id = ClassTypeBuilder.newBuilder().packageName("java.util").className("UUID").build();
+        var entity = ClassTypeBuilder.newBuilder().className("Object").build();
+        methods = new ArrayList<>();
+        for (String name : List.of("findById", "delete", "exists")) {
+            methods.add(MethodDefinitionBuilder.createBuilder()
+                    .name(name)
+                    .addModifier(Modifier.PUBLIC)
+                    .returnClassType(entity)
+                    .addParameter(ParameterDefinitionBuilder.newBuilder().parameterName("id").parameterType(id)
+                            .build())
+                    .body("var value = entityManager.find(Object.class, id);\nreturn value;")
+                    .build());
+        }
+        methods.add(MethodDefinitionBuilder.createBuilder()
+                .name("save")
+                .addModifier(Modifier.PUBLIC)
+                .returnClassType(entity)
+                .addParameter(ParameterDefinitionBuilder.newBuilder().parameterName("value").parameterType(entity)
+                        .build())
+                .body("entityManager.persist(value);\nreturn value;")
+                .build());
+    }
+
+    /**
+     *
+     * @param blackhole consumes the definitions
+     */
+    @Benchmark
+    public void buildDaos(Blackhole blackhole) {
+        for (int i = 0; i < classCount; i++) {
+            var builder = (ClassDefinitionBuilder) DefinitionBuilder.createClassBuilder("com.example.dao", "Dao" + i);
+            builder.addModifier(Modifier.PUBLIC);
+            builder.addConstructor(constructor);
+            builder.addMethods(methods);
+            blackhole.consume(builder.build());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.benchmark;
+
+import com.jgencode.gen.ClassDefinitionBuilder;
+import com.jgencode.gen.DefinitionBuilder;
+import com.jgencode.gen.FieldDefinitionBuilder;
+import com.jgencode.gen.MethodDefinitionBuilder;
+import com.jgencode.gen.ParameterDefinitionBuilder;
+import com.jgencode.gen.type.AnnotationTypeBuilder;
+import com.jgencode.gen.type.ClassType;
+import com.jgencode.gen.type.ClassTypeBuilder;
+import com.jgencode.gen.type.NativeTypeBuilder;
+import com.jgencode.gen.values.Modifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A synthetic model of packages, classes, fields, methods, annotations and generics
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+final class SyntheticModel {
+
+    private final int packages;
+    private final int classesPerPackage;
+    private final int fieldsPerClass;
+    private final int methodsPerClass;
+
+    SyntheticModel(int packages, int classesPerPackage, int fieldsPerClass, int methodsPerClass) {
+        this.packages = packages;
+        this.classesPerPackage = classesPerPackage;
+        this.fieldsPerClass = fieldsPerClass;
+        this.methodsPerClass = methodsPerClass;
+    }
+
+    int getDefinitionCount() {
+        return packages * classesPerPackage;
+    }
+
+    /**
+     * Creates the builders of every class of the model
+     *
+     * @return the class builders
+     */
+    List<DefinitionBuilder> createBuilders() {
+        var entity = AnnotationTypeBuilder.newBuilder()
+                .classType(ClassTypeBuilder.newBuilder().packageName("jakarta.persistence").className("Entity").build())
+                .build();
+        var id = AnnotationTypeBuilder.newBuilder()
+                .classType(ClassTypeBuilder.newBuilder().packageName("jakarta.persistence").className("Id").build())
+                .build();
+        var uuid = ClassTypeBuilder.newBuilder().packageName("java.util").className("UUID").build();
+        var longType = ClassTypeBuilder.newBuilder().packageName("java.lang").className("Long").build();
+        List<DefinitionBuilder> builders = new ArrayList<>(getDefinitionCount());
+        for (int p = 0; p < packages; p++) {
+            var packageName = "com.example.synthetic.p" + p;
+            for (int c = 0; c < classesPerPackage; c++) {
+                var className = "Entity" + c;
+                ClassDefinitionBuilder builder = DefinitionBuilder.createClassBuilder(packageName, className);
+                builder.addModifier(Modifier.PUBLIC);
+                builder.addAnnotationType(entity);
+                builder.classExtended(ClassTypeBuilder.newBuilder()
+                        .packageName("com.example.synthetic.base")
+                        .className("BaseEntity")
+                        .addGeneric("T", uuid)
+                        .build());
+                for (int f = 0; f < fieldsPerClass; f++) {
+                    var field = FieldDefinitionBuilder.createBuilder()
+                            .fieldName("field" + f)
+                            .addModifier(Modifier.PRIVATE)
+                            .getter(true)
+                            .setter(true);
+                    if (f == 0) {
+                        field.classType(uuid).addAnnotationType(id);
+                    } else if (f % 2 == 0) {
+                        field.nativeType("long");
+                    } else {
+                        field.classType(ClassTypeBuilder.newBuilder()
+                                .packageName("com.example.synthetic.p" + ((p + f) % packages))
+                                .className("Entity" + ((c + f) % classesPerPackage))
+                                .build());
+                    }
+                    builder.addField(field.build());
+                }
+                for (int m = 0; m < methodsPerClass; m++) {
+                    builder.addMethod(MethodDefinitionBuilder.createBuilder()
+                            .name("find" + m)
+                            .addModifier(Modifier.PUBLIC)
+                            .returnClassType(listOf(longType))
+                            .addParameter(ParameterDefinitionBuilder.newBuilder()
+                                    .parameterName("limit")
+                                    .parameterType(NativeTypeBuilder.newBuilder().name("int").build())
+                                    .build())
+                            .body("return java.util.Collections.emptyList();")
+                            .build());
+                }
+                builders.add(builder);
+            }
+        }
+        return builders;
+    }
+
+    private static ClassType listOf(ClassType elementType) {
+        return ClassTypeBuilder.newBuilder()
+                .packageName("java.util")
+                .className("List")
+                .addGeneric("T", elementType)
+                .build();
+    }
+
+    String describe() {
+        return String.format("%d packages x %d classes, %d fields, %d methods", packages, classesPerPackage,
+                fieldsPerClass, methodsPerClass);
+    }
+}
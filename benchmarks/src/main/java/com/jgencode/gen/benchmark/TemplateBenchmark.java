@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.benchmark;
+
+import com.jgencode.gen.ClassDefinitionBuilder;
+import com.jgencode.gen.ClassTemplate;
+import com.jgencode.gen.DefinitionBuilder;
+import com.jgencode.gen.FieldDefinitionBuilder;
+import com.jgencode.gen.type.ClassTypeBuilder;
+import com.jgencode.gen.values.Modifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many classes of the same shape, created with a builder each and as instances of a {@link ClassTemplate}
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateBenchmark {
+
+    @Param({"1000"})
+    int classCount;
+
+    private ClassTemplate template;
+
+    /**
+     *
+     */
+    @Setup
+    public void setup() {
+        template = ClassTemplate.compile(createClassBuilder(ClassTemplate.slot("name"), ClassTemplate.slot("type"),
+                ClassTemplate.slot("size")));
+    }
+
+    private static ClassDefinitionBuilder createClassBuilder(String className, String type, String size) {
+        var builder = (ClassDefinitionBuilder) DefinitionBuilder.createClassBuilder("com.example.holder", className);
+        builder.addModifier(Modifier.PUBLIC);
+        builder.addField(FieldDefinitionBuilder.createBuilder()
+                .fieldName("value")
+                .addModifier(Modifier.PRIVATE)
+                .classType(ClassTypeBuilder.newBuilder().packageName("com.example.model").className(type).build())
+                .getter(true)
+                .setter(true)
+                .build());
+        builder.addField(FieldDefinitionBuilder.createBuilder()
+                .fieldName("size")
+                .addModifier(Modifier.PRIVATE)
+                .nativeType("int")
+                .defaultValue(size)
+                .getter(true)
+                .build());
+        return builder;
+    }
+
+    /**
+     *
+     * @param blackhole consumes the definitions
+     */
+    @Benchmark
+    public void buildClasses(Blackhole blackhole) {
+        for (int i = 0; i < classCount; i++) {
+            blackhole.consume(createClassBuilder("Holder" + i, "Model" + i, String.valueOf(i)).build());
+        }
+    }
+
+    /**
+     *
+     * @param blackhole consumes the definitions
+     */
+    @Benchmark
+    public void instantiateTemplate(Blackhole blackhole) {
+        for (int i = 0; i < classCount; i++) {
+            blackhole.consume(template.newInstance()
+                    .set("name", "Holder" + i)
+                    .set("type", "Model" + i)
+                    .set("size", String.valueOf(i))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.benchmark;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.JavaFileBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@code JavaFile.writeFile()} of an already built definition
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteFileBenchmark {
+
+    @Param({"10", "1000"})
+    int fieldCount;
+
+    private Path destinationPath;
+    private Definition definition;
+
+    /**
+     *
+     * @throws IOException if the temporary directory can't be created
+     */
+    @Setup
+    public void setup() throws IOException {
+        destinationPath = Files.createTempDirectory("jgencode-benchmark");
+        definition = BenchmarkModels.createClassBuilder("com.example.model", "Model",
+                BenchmarkModels.createFields(fieldCount)).build();
+    }
+
+    /**
+     *
+     * @throws IOException if the temporary directory can't be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(destinationPath)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the path of the written file
+     * @throws IOException if the file can't be written
+     */
+    @Benchmark
+    public Path writeFile() throws IOException {
+        return JavaFileBuilder.createBuilder(definition, destinationPath).build().writeFile();
+    }
+}
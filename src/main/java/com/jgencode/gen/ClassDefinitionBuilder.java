@@ -16,28 +16,25 @@
 package com.jgencode.gen;
 
 import com.jgencode.gen.type.ClassType;
-import com.jgencode.gen.type.ClassTypeBuilder;
+import com.jgencode.gen.type.TypeNamer;
 import com.jgencode.gen.util.Constants;
-import static com.jgencode.gen.util.Constants.CLASSNAME_PARAMETER;
 import static com.jgencode.gen.util.Constants.COMMA_SPACE;
-import static com.jgencode.gen.util.Constants.GENERAL_CLASSES;
 import static com.jgencode.gen.util.Constants.LESS_THAN;
 import static com.jgencode.gen.util.Constants.MORE_THAN;
-import static com.jgencode.gen.util.Constants.PERIOD;
+import com.jgencode.gen.util.FingerprintBuilder;
 import com.jgencode.gen.util.MethodUtil;
+import com.jgencode.gen.values.GenerationPhase;
 import com.jgencode.gen.values.Modifier;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.SPACE;
 
 /**
@@ -57,106 +54,88 @@ public class ClassDefinitionBuilder extends DefinitionBuilder implements Definit
 
     private ClassType classExtended;
 
+    private final SegmentCache accessorSegments = new SegmentCache();
+
     ClassDefinitionBuilder(String packageDefinition, String className) {
         super(packageDefinition, className);
     }
 
     /**
-     * Creates import statements based on class definitions
+     * Adds the classes of the class declaration, the fields, the constructors and the methods
      */
     @Override
-    protected void importClasses() {
+    protected void collectTypes(ImportResolver resolver) {
         LOGGER.debug("import classes from class definition {}", className);
-        //from interfaces
-        interfacesImplements.forEach(interfaceImplement -> classesToImport.add(interfaceImplement.getFullClassName()));
-        //from extended
-        if (classExtended != null) {
-            classesToImport.add(classExtended.getFullClassName());
-        }
-
-        super.importClasses();
-        LOGGER.debug("Classes to import: {}", classesToImport);
+        resolver.add(classExtended);
+        interfacesImplements.forEach(resolver::add);
+        super.collectTypes(resolver);
+        resolver.addConstructors(constructors);
+        resolver.addMethods(methods);
     }
 
     /**
-     * Builds the code according to the values assigned in its properties. The result is saved in {@link #codeLines}
-     * internal property
+     * Writes the code according to the values assigned in its properties.
      */
     @Override
-    protected void doBuildCode() {
+    protected void writeCode(SourceWriter writer) throws IOException {
         LOGGER.debug("building code {}", className);
-        codeLines = new ArrayList<>();
-        codeLines.add(getPackageDeclaration());
-        MethodUtil.importClassesFromMethods(methods, classesToImport);
-        importClasses();
-        var classDeclaration = new StringBuilder(System.lineSeparator());
-        annotationTypes.forEach(annotationType -> {
-            for (String s : annotationType.createSourceLines()) {
-                classDeclaration.append(s).append(System.lineSeparator());
-            }
-        });
+        writer.startPhase(GenerationPhase.IMPORT_RESOLUTION);
+        var resolver = resolveImports();
+        var namer = resolver.getMemberNamer();
 
+        writer.startPhase(GenerationPhase.DECLARATION);
+        var classDeclaration = new StringBuilder();
         classDeclaration.append(Modifier.currentAccessModifier(modifiers));
         classDeclaration.append(SPACE).append("class").append(SPACE);
         classDeclaration.append(className);
-        addClassExtendedToDeclaration(classDeclaration);
-        addInterfaceImplementsToDeclaration(classDeclaration);
-        classDeclaration.append('{');
+        addClassExtendedToDeclaration(classDeclaration, resolver);
+        addInterfaceImplementsToDeclaration(classDeclaration, resolver);
 
-        codeLines.add(classDeclaration.toString());
+        writer.line(getPackageDeclaration()).newLine();
+        writeImports(writer, resolver);
+        writer.newLine();
+        writeAnnotations(writer, namer);
+        writer.openBrace(classDeclaration);
 
-        codeLines.addAll(createFields());
+        writer.startPhase(GenerationPhase.MEMBERS);
+        writer.indent();
+        writeFields(writer, namer);
 
         if (fields != null && !fields.isEmpty()) {
-            codeLines.addAll(createAccessors());
+            writeAccessors(writer, namer);
         }
 
         if (constructors != null) {
-            constructors.forEach(constructor -> codeLines.addAll(constructor.getSourceLines().stream()
-                    .map(line -> StringUtils.replace(line, CLASSNAME_PARAMETER, className))
-                    .map(
-                            line -> String.format("%s%s", getIndentation(1), line)).collect(toList()))
-            );
+            for (ConstructorDefinitionBuilder.ConstructorDefinition constructor : constructors) {
+                constructor.getSharedSegment().write(writer, namer, className, constructorWriter -> constructorWriter
+                        .lines(constructor.getSourceLines(namer, constructorWriter.getOptions())));
+            }
         }
 
         if (methods != null) {
-            methods.forEach(method -> codeLines.addAll(method.getSourceLines().stream().map(
-                    line -> String.format("%s%s", getIndentation(1), line)).collect(toList()))
-            );
+            for (MethodDefinitionBuilder.MethodDefinition method : methods) {
+                method.getSharedSegment().write(writer, namer, className, methodWriter -> methodWriter.lines(
+                        method.getSourceLines(namer, methodWriter.getOptions())));
+            }
         }
+        writer.unindent();
 
-        codeLines.add("}");
+        writer.line("}");
+        writer.endPhase();
     }
 
-    private void addClassExtendedToDeclaration(StringBuilder classDeclaration) {
+    private void addClassExtendedToDeclaration(StringBuilder classDeclaration, ImportResolver resolver) {
         if (classExtended == null) {
             return;
         }
 
-        var declaration = new StringBuilder(classExtended.getClassName());
+        var declaration = new StringBuilder(resolver.name(classExtended));
         if (classExtended.getGenerics() != null) {
             declaration.append(LESS_THAN);
             var params
                     = classExtended.getGenerics().values().stream().map(genericType -> {
                         if (genericType instanceof ClassType genericTypeParam) {
-                            String typeParamClassName = genericTypeParam.getClassName();
-                            String packageName = null;
-                            if (StringUtils.contains(typeParamClassName, PERIOD)) {
-                                typeParamClassName = StringUtils.substringAfterLast(genericTypeParam.getClassName(),
-                                        PERIOD);
-                                packageName = StringUtils.substringBeforeLast(genericTypeParam.getClassName(), PERIOD);
-                            }
-                            var typeParam = ClassTypeBuilder.newBuilder()
-                                    .className(typeParamClassName)
-                                    .packageName(packageName)
-                                    .build();
-
-                            var classToImport = typeParam.getFullClassName();
-                            classesToImport.add(classToImport);
-                            return typeParam.getClassName();
-                        }
-                        if (GENERAL_CLASSES.containsKey((String) genericType)) {
-                            classesToImport.add(GENERAL_CLASSES.get((String) genericType));
+                            return resolver.nameWithGenerics(genericTypeParam);
                         }
                         return (String) genericType;
 
@@ -169,14 +148,14 @@ public class ClassDefinitionBuilder extends DefinitionBuilder implements Definit
 
     }
 
-    private void addInterfaceImplementsToDeclaration(StringBuilder classDeclaration) {
+    private void addInterfaceImplementsToDeclaration(StringBuilder classDeclaration, ImportResolver resolver) {
         if (interfacesImplements.isEmpty()) {
             return;
         }
         classDeclaration.append(" implements ");
 
         var interfaces
-                = interfacesImplements.stream().map(ClassType::getClassName)
+                = interfacesImplements.stream().map(resolver::name)
                         .collect(Collectors.joining(Constants.COMMA_SPACE));
         classDeclaration.append(interfaces);
         classDeclaration.append(SPACE);
@@ -189,6 +168,7 @@ public class ClassDefinitionBuilder extends DefinitionBuilder implements Definit
      * @return this same object
      */
     public ClassDefinitionBuilder addInterfaceImplements(ClassType interfaceType) {
+        invalidate();
         interfacesImplements.add(interfaceType);
         return this;
     }
@@ -200,35 +180,51 @@ public class ClassDefinitionBuilder extends DefinitionBuilder implements Definit
      * @return this same builder object
      */
     public ClassDefinitionBuilder classExtended(ClassType classExtended) {
+        invalidate();
         this.classExtended = classExtended;
         return this;
     }
 
-    private Collection<? extends String> createAccessors() {
-
-        List<String> lines = new ArrayList<>();
-        fields.forEach(field -> {
-            if (field.isSetter()) {
-                var fieldCapitalized = StringUtils.capitalize(field.getFieldName());
-                var fieldType = field.getFieldType();
-                lines.add(String.format("%spublic void set%s(%s %s){", getIndentation(1), fieldCapitalized, fieldType,
-                        field.getFieldName()));
-                lines.add(String.format("%1$sthis.%2$s = %2$s;", getIndentation(2), field.getFieldName()));
-                lines.add(String.format("%s}%n", getIndentation(1)));
-            }
-            if (field.isGetter()) {
-                var fieldCapitalized = StringUtils.capitalize(field.getFieldName());
-                var fieldType = field.getFieldType();
-                lines.add(String.format("%spublic %s get%s(){", getIndentation(1), fieldType, fieldCapitalized));
-                lines.add(String.format("%1$sreturn %2$s;", getIndentation(2), field.getFieldName()));
-                lines.add(String.format("%s}%n", getIndentation(1)));
+    private void writeAccessors(SourceWriter writer, TypeNamer namer) throws IOException {
+        for (FieldDefinitionBuilder.FieldDefinition field : fields) {
+            if (field.isSetter() || field.isGetter()) {
+                writeSegment(accessorSegments, writer, namer, field,
+                        accessorWriter -> writeAccessors(accessorWriter, namer, field));
             }
-        });
-        return lines;
+        }
+    }
+
+    private void writeAccessors(SourceWriter writer, TypeNamer namer, FieldDefinitionBuilder.FieldDefinition field)
+            throws IOException {
+        if (field.isSetter()) {
+            var fieldCapitalized = StringUtils.capitalize(field.getFieldName());
+            var fieldType = field.getFieldType(namer);
+            writer.openBrace("public void set" + fieldCapitalized + "(" + fieldType + " " + field.getFieldName() + ")");
+            writer.indent().line("this." + field.getFieldName() + " = " + field.getFieldName() + ";").unindent();
+            writer.line("}").blankLines();
+        }
+        if (field.isGetter()) {
+            var fieldCapitalized = StringUtils.capitalize(field.getFieldName());
+            var fieldType = field.getFieldType(namer);
+            writer.openBrace("public " + fieldType + " get" + fieldCapitalized + "()");
+            writer.indent().line("return " + field.getFieldName() + ";").unindent();
+            writer.line("}").blankLines();
+        }
+    }
+
+    @Override
+    protected void addToFingerprint(FingerprintBuilder fingerprintBuilder) {
+        super.addToFingerprint(fingerprintBuilder);
+        fingerprintBuilder.add(classExtended);
+        fingerprintBuilder.add(interfacesImplements.size());
+        interfacesImplements.forEach(fingerprintBuilder::add);
+        MethodUtil.addConstructorsToFingerprint(constructors, fingerprintBuilder);
+        MethodUtil.addMethodsToFingerprint(methods, fingerprintBuilder);
     }
 
     @Override
     public ClassDefinitionBuilder addMethods(Collection<MethodDefinitionBuilder.MethodDefinition> methodDefinitions) {
+        invalidate();
         Optional.ofNullable(this.methods).orElseGet(() -> this.methods = new LinkedHashSet<>())
                 .addAll(methodDefinitions);
         return this;
@@ -242,6 +238,7 @@ public class ClassDefinitionBuilder extends DefinitionBuilder implements Definit
      */
     public ClassDefinitionBuilder addConstructor(
             ConstructorDefinitionBuilder.ConstructorDefinition constructorDefinition) {
+        invalidate();
         Optional.ofNullable(this.constructors).orElseGet(() -> this.constructors = new LinkedHashSet<>()).add(
                 constructorDefinition);
         return this;
@@ -255,6 +252,7 @@ public class ClassDefinitionBuilder extends DefinitionBuilder implements Definit
      */
     @Override
     public DefinitionBuilderWithMethods addMethod(MethodDefinitionBuilder.MethodDefinition methodDefinition) {
+        invalidate();
         Optional.ofNullable(this.methods).orElseGet(() -> this.methods = new LinkedHashSet<>()).add(methodDefinition);
         return this;
     }
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.listener.GenerationListener;
+import com.jgencode.gen.values.FormatOptions;
+import com.jgencode.gen.values.Modifier;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static com.jgencode.gen.util.Constants.SLOT_PREFIX;
+import static com.jgencode.gen.util.Constants.SLOT_SUFFIX;
+
+/**
+ * A class shape rendered once and instantiated many times with different names, types and values.
+ * <p>
+ * The skeleton is an ordinary definition builder whose package, class name, type names or literal values contain
+ * slots, created with {@link #slot(String)}. Compiling it renders the skeleton and splits the text at the slots, so an
+ * instance is the fixed text with the values of the slots between the parts, without a builder per instance.
+ * <p>
+ * The slots are replaced as text. The imports are resolved and sorted once, on the skeleton: a slot in the class name
+ * of a type with a package is imported from that package, and a value that needs another import must be written with
+ * its package. Nothing that the builders derive from a name, such as the capitalized field name of an accessor, follows the
+ * value of a slot.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public final class ClassTemplate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassTemplate.class);
+
+    private static final Pattern SLOT_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9]*");
+
+    private final SlotText packageDefinition;
+    private final SlotText className;
+    private final SlotText source;
+    private final Set<Modifier> modifiers;
+    private final FormatOptions formatOptions;
+    private final String lineSeparator;
+    private final int fixedLineCount;
+    private final Map<String, Integer> sourceSlotCounts;
+    private final Set<String> slotNames;
+
+    private ClassTemplate(DefinitionBuilder skeleton, FormatOptions formatOptions, String text) {
+        this.packageDefinition = SlotText.parse(skeleton.getPackageDefinition());
+        this.className = SlotText.parse(skeleton.getClassName());
+        this.source = SlotText.parse(text);
+        this.modifiers = Collections.unmodifiableSet(new LinkedHashSet<>(skeleton.modifiers));
+        this.formatOptions = formatOptions;
+        this.lineSeparator = formatOptions.getLineSeparator();
+        var lineCount = 0;
+        for (String segment : source.segments) {
+            lineCount += StringUtils.countMatches(segment, lineSeparator);
+        }
+        this.fixedLineCount = lineCount;
+        var slotCounts = new LinkedHashMap<String, Integer>();
+        for (String slot : source.slots) {
+            slotCounts.merge(slot, 1, Integer::sum);
+        }
+        this.sourceSlotCounts = slotCounts;
+        var names = new LinkedHashSet<String>();
+        Collections.addAll(names, packageDefinition.slots);
+        Collections.addAll(names, className.slots);
+        names.addAll(slotCounts.keySet());
+        this.slotNames = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * The text that marks a slot in the skeleton of a template
+     *
+     * @param name name of the slot, letters and digits starting with a letter
+     * @return the slot to use as a name, a type or a value of the skeleton
+     */
+    public static String slot(String name) {
+        if (name == null || !SLOT_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("invalid slot name: " + name);
+        }
+        return SLOT_PREFIX + name + SLOT_SUFFIX;
+    }
+
+    /**
+     * Compiles a skeleton with the default format options
+     *
+     * @param skeleton the definition builder with the slots
+     * @return the template
+     */
+    public static ClassTemplate compile(DefinitionBuilder skeleton) {
+        return compile(skeleton, FormatOptions.DEFAULT);
+    }
+
+    /**
+     * Compiles a skeleton with the layout of some format options
+     *
+     * @param skeleton the definition builder with the slots
+     * @param formatOptions the layout of the source code
+     * @return the template
+     */
+    public static ClassTemplate compile(DefinitionBuilder skeleton, FormatOptions formatOptions) {
+        var text = new StringBuilder();
+        try {
+            skeleton.writeTo(text, formatOptions, GenerationListener.NONE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        var template = new ClassTemplate(skeleton, formatOptions, text.toString());
+        LOGGER.debug("compiled template {} with slots {}", skeleton.getClassName(), template.slotNames);
+        return template;
+    }
+
+    /**
+     *
+     * @return the names of the slots, in the order they first appear
+     */
+    public Set<String> getSlotNames() {
+        return slotNames;
+    }
+
+    /**
+     *
+     * @return the layout of the source code
+     */
+    public FormatOptions getFormatOptions() {
+        return formatOptions;
+    }
+
+    /**
+     *
+     * @return a builder of an instance of this template
+     */
+    public InstanceBuilder newInstance() {
+        return new InstanceBuilder(this);
+    }
+
+    /**
+     * Assigns the values of the slots of an instance
+     */
+    public static final class InstanceBuilder {
+
+        private final ClassTemplate template;
+        private final Map<String, String> values = new HashMap<>();
+
+        private InstanceBuilder(ClassTemplate template) {
+            this.template = template;
+        }
+
+        /**
+         *
+         * @param slot name of the slot
+         * @param value text written in place of the slot
+         * @return the same builder object
+         */
+        public InstanceBuilder set(String slot, String value) {
+            if (!template.slotNames.contains(slot)) {
+                throw new IllegalArgumentException("the template has no slot " + slot);
+            }
+            values.put(slot, Objects.requireNonNull(value, slot));
+            return this;
+        }
+
+        /**
+         *
+         * @param values values of the slots, by name
+         * @return the same builder object
+         */
+        public InstanceBuilder setAll(Map<String, String> values) {
+            values.forEach(this::set);
+            return this;
+        }
+
+        /**
+         * Creates the definition of the instance. Its source code is made of the parts of the template and the values,
+         * without copying them.
+         *
+         * @return the definition
+         */
+        public Definition build() {
+            checkValues();
+            var parts = new ArrayList<String>(template.source.segments.length * 2);
+            template.source.addParts(values, parts);
+            var lineCount = template.fixedLineCount;
+            for (Map.Entry<String, Integer> slotCount : template.sourceSlotCounts.entrySet()) {
+                lineCount += slotCount.getValue()
+                        * StringUtils.countMatches(values.get(slotCount.getKey()), template.lineSeparator);
+            }
+            return new Definition(template.packageDefinition.resolve(values), template.className.resolve(values),
+                    template.modifiers, template.formatOptions, Collections.unmodifiableList(parts), lineCount);
+        }
+
+        /**
+         * Writes the source code of the instance, without creating its definition
+         *
+         * @param out where the source code is written
+         * @throws IOException if the appendable fails
+         */
+        public void writeTo(Appendable out) throws IOException {
+            checkValues();
+            template.source.writeTo(values, out);
+        }
+
+        private void checkValues() {
+            if (values.size() != template.slotNames.size()) {
+                var missing = new LinkedHashSet<>(template.slotNames);
+                missing.removeAll(values.keySet());
+                throw new IllegalStateException("slots without value: " + missing);
+            }
+        }
+    }
+
+    /**
+     * A text split at its slots: the slot {@code i} goes between the segments {@code i} and {@code i + 1}
+     */
+    private static final class SlotText {
+
+        private final String[] segments;
+        private final String[] slots;
+
+        private SlotText(String[] segments, String[] slots) {
+            this.segments = segments;
+            this.slots = slots;
+        }
+
+        private static SlotText parse(String text) {
+            var segments = new ArrayList<String>();
+            var slots = new ArrayList<String>();
+            var segmentStart = 0;
+            var searchStart = 0;
+            int slotStart;
+            while ((slotStart = text.indexOf(SLOT_PREFIX, searchStart)) >= 0) {
+                var nameStart = slotStart + SLOT_PREFIX.length();
+                var nameEnd = text.indexOf(SLOT_SUFFIX, nameStart);
+                if (nameEnd < 0) {
+                    break;
+                }
+                var name = text.substring(nameStart, nameEnd);
+                if (!SLOT_NAME.matcher(name).matches()) {
+                    searchStart = nameStart;
+                    continue;
+                }
+                segments.add(text.substring(segmentStart, slotStart));
+                slots.add(name);
+                segmentStart = nameEnd + SLOT_SUFFIX.length();
+                searchStart = segmentStart;
+            }
+            segments.add(text.substring(segmentStart));
+            return new SlotText(segments.toArray(String[]::new), slots.toArray(String[]::new));
+        }
+
+        private String resolve(Map<String, String> values) {
+            if (slots.length == 0) {
+                return segments[0];
+            }
+            var text = new StringBuilder();
+            try {
+                writeTo(values, text);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return text.toString();
+        }
+
+        private void writeTo(Map<String, String> values, Appendable out) throws IOException {
+            for (int i = 0; i < slots.length; i++) {
+                out.append(segments[i]).append(values.get(slots[i]));
+            }
+            out.append(segments[slots.length]);
+        }
+
+        private void addParts(Map<String, String> values, List<String> parts) {
+            for (int i = 0; i < slots.length; i++) {
+                parts.add(segments[i]);
+                parts.add(values.get(slots[i]));
+            }
+            parts.add(segments[slots.length]);
+        }
+    }
+}
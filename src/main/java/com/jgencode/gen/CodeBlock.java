@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.type.JavaType;
+import com.jgencode.gen.type.TypeNamer;
+import com.jgencode.gen.values.BraceStyle;
+import com.jgencode.gen.values.FormatOptions;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.jgencode.gen.util.Constants.CLOSE_BRACE;
+import static com.jgencode.gen.util.Constants.OPEN_BRACE;
+import static org.apache.commons.lang3.StringUtils.SPACE;
+
+/**
+ * The body of a method or a constructor, made of lines with their relative indentation. The types of the lines are
+ * kept as types, so they are imported by the definition and named by its resolver when the body is rendered. It is
+ * created with a {@link CodeBlockBuilder}.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public final class CodeBlock {
+
+    /**
+     * A code block without lines
+     */
+    public static final CodeBlock EMPTY = new CodeBlock(List.of(), List.of());
+
+    private final List<Line> lines;
+    private final List<JavaType> types;
+
+    CodeBlock(List<Line> lines, List<JavaType> types) {
+        this.lines = lines;
+        this.types = types;
+    }
+
+    /**
+     * Creates a code block from a format, as {@link CodeBlockBuilder#add(String, Object...)} does
+     *
+     * @param format the format, with {@code $T}, {@code $N}, {@code $L} and {@code $S} placeholders
+     * @param args the values of the placeholders
+     * @return the code block
+     */
+    public static CodeBlock of(String format, Object... args) {
+        return CodeBlockBuilder.newBuilder().add(format, args).build();
+    }
+
+    /**
+     * Creates a code block from a body given as text. The text is split only once, the empty lines are discarded and
+     * no placeholder is replaced.
+     *
+     * @param body the body, it can be {@code null}
+     * @return the code block
+     */
+    static CodeBlock ofText(String body) {
+        if (StringUtils.isBlank(body)) {
+            return EMPTY;
+        }
+        var lines = body.lines()
+                .filter(StringUtils::isNotEmpty)
+                .map(line -> new Line(Kind.TEXT, 0, new Object[]{line}))
+                .collect(Collectors.toUnmodifiableList());
+        return new CodeBlock(lines, List.of());
+    }
+
+    /**
+     *
+     * @return the types used by the code block, that the definitions import
+     */
+    public List<JavaType> getTypes() {
+        return types;
+    }
+
+    /**
+     *
+     * @return {@code true} if the code block has no lines
+     */
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    List<Line> getLines() {
+        return lines;
+    }
+
+    /**
+     * Adds the source lines of the code block
+     *
+     * @param sourceLines where the lines are added
+     * @param namer how the types are named
+     * @param options the layout of the source code
+     * @param level indentation level of the code block
+     */
+    void addSourceLines(List<String> sourceLines, TypeNamer namer, FormatOptions options, int level) {
+        var nextLine = options.getBraceStyle() == BraceStyle.NEXT_LINE;
+        for (Line line : lines) {
+            var indentation = options.getIndentation().get(level + line.level);
+            var text = line.getText(namer);
+            switch (line.kind) {
+                case BEGIN:
+                    if (nextLine) {
+                        sourceLines.add(indentation + text);
+                        sourceLines.add(indentation + OPEN_BRACE);
+                    } else {
+                        sourceLines.add(indentation + text + SPACE + OPEN_BRACE);
+                    }
+                    break;
+                case NEXT:
+                    if (nextLine) {
+                        sourceLines.add(indentation + CLOSE_BRACE);
+                        sourceLines.add(indentation + text);
+                        sourceLines.add(indentation + OPEN_BRACE);
+                    } else {
+                        sourceLines.add(indentation + CLOSE_BRACE + SPACE + text + SPACE + OPEN_BRACE);
+                    }
+                    break;
+                case END:
+                    sourceLines.add(indentation + CLOSE_BRACE + (text.isEmpty() ? text : SPACE + text));
+                    break;
+                default:
+                    sourceLines.add(text.isEmpty() ? text : indentation + text);
+            }
+        }
+    }
+
+    /**
+     * The source code of the code block, with the simple names of its types
+     *
+     * @return the source code
+     */
+    @Override
+    public String toString() {
+        var sourceLines = new ArrayList<String>();
+        addSourceLines(sourceLines, TypeNamer.SIMPLE_NAME, FormatOptions.DEFAULT, 0);
+        return String.join("\n", sourceLines);
+    }
+
+    /**
+     * Kind of line of a code block
+     */
+    enum Kind {
+        /**
+         * A line of code
+         */
+        TEXT,
+        /**
+         * The start of a control flow, followed by an opening brace
+         */
+        BEGIN,
+        /**
+         * A closing brace, the next part of a control flow and an opening brace
+         */
+        NEXT,
+        /**
+         * A closing brace, optionally followed by the end of a control flow
+         */
+        END
+    }
+
+    /**
+     * A line of a code block: text and types, at an indentation level relative to the code block
+     */
+    static final class Line {
+
+        private final Kind kind;
+        private final int level;
+        private final Object[] parts;
+
+        Line(Kind kind, int level, Object[] parts) {
+            this.kind = kind;
+            this.level = level;
+            this.parts = parts;
+        }
+
+        Line withLevel(int level) {
+            return new Line(kind, level, parts);
+        }
+
+        int getLevel() {
+            return level;
+        }
+
+        private String getText(TypeNamer namer) {
+            if (parts.length == 1 && parts[0] instanceof String) {
+                return (String) parts[0];
+            }
+            var text = new StringBuilder();
+            for (Object part : parts) {
+                if (part instanceof JavaType) {
+                    text.append(namer.typeName((JavaType) part));
+                } else {
+                    text.append((String) part);
+                }
+            }
+            return text.toString();
+        }
+    }
+}
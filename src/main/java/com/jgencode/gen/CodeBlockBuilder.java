@@ -0,0 +1,345 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.FieldDefinitionBuilder.FieldDefinition;
+import com.jgencode.gen.MethodDefinitionBuilder.MethodDefinition;
+import com.jgencode.gen.type.ClassTypeBuilder;
+import com.jgencode.gen.type.JavaType;
+import com.jgencode.gen.type.NativeTypeBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builder of a {@link CodeBlock}. The formats accept these placeholders, each one taking the next argument:
+ * <ul>
+ * <li>{@code $T}: a type, a {@link JavaType} or a {@link Class}. It is imported by the definition that has the code
+ * block.</li>
+ * <li>{@code $N}: a name, a {@link String} or the definition of a field, a parameter or a method.</li>
+ * <li>{@code $L}: a literal, written as is.</li>
+ * <li>{@code $S}: a string, written as a Java string literal with its characters escaped.</li>
+ * <li>{@code $$}: a dollar sign.</li>
+ * </ul>
+ * A line feed in a format ends the line.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class CodeBlockBuilder {
+
+    private final List<CodeBlock.Line> lines = new ArrayList<>();
+    private final List<JavaType> types = new ArrayList<>();
+    private final List<Object> currentParts = new ArrayList<>();
+    private final StringBuilder currentText = new StringBuilder();
+    private int level;
+    private int openControlFlows;
+
+    private CodeBlockBuilder() {
+    }
+
+    /**
+     *
+     * @return a new code block builder
+     */
+    public static CodeBlockBuilder newBuilder() {
+        return new CodeBlockBuilder();
+    }
+
+    /**
+     * Adds code to the current line
+     *
+     * @param format the format of the code
+     * @param args the values of the placeholders
+     * @return the same builder object
+     */
+    public CodeBlockBuilder add(String format, Object... args) {
+        var argIndex = 0;
+        for (int i = 0; i < format.length(); i++) {
+            var c = format.charAt(i);
+            if (c == '\n') {
+                endLine(CodeBlock.Kind.TEXT, level);
+            } else if (c != '$') {
+                currentText.append(c);
+            } else if (i + 1 == format.length()) {
+                throw new IllegalArgumentException("dangling $ at the end of '" + format + "'");
+            } else {
+                var placeholder = format.charAt(++i);
+                if (placeholder == '$') {
+                    currentText.append('$');
+                    continue;
+                }
+                if (argIndex == args.length) {
+                    throw new IllegalArgumentException("missing argument for $" + placeholder + " in '" + format + "'");
+                }
+                addArgument(placeholder, args[argIndex++]);
+            }
+        }
+        if (argIndex != args.length) {
+            throw new IllegalArgumentException((args.length - argIndex) + " unused arguments for '" + format + "'");
+        }
+        return this;
+    }
+
+    private void addArgument(char placeholder, Object arg) {
+        switch (placeholder) {
+            case 'T':
+                var type = toType(arg);
+                flushText();
+                currentParts.add(type);
+                types.add(type);
+                break;
+            case 'N':
+                currentText.append(toName(arg));
+                break;
+            case 'L':
+                currentText.append(arg);
+                break;
+            case 'S':
+                currentText.append(arg == null ? "null" : toStringLiteral(String.valueOf(arg)));
+                break;
+            default:
+                throw new IllegalArgumentException("unknown placeholder $" + placeholder);
+        }
+    }
+
+    private static JavaType toType(Object arg) {
+        if (arg instanceof JavaType) {
+            return (JavaType) arg;
+        }
+        if (arg instanceof Class) {
+            var type = (Class<?>) arg;
+            if (type.isPrimitive()) {
+                return NativeTypeBuilder.newBuilder().name(type.getName()).build();
+            }
+            if (!type.isArray() && type.getCanonicalName() != null) {
+                var packageName = type.getPackageName();
+                return ClassTypeBuilder.newBuilder()
+                        .packageName(packageName.isEmpty() ? null : packageName)
+                        .className(packageName.isEmpty() ? type.getCanonicalName()
+                                : type.getCanonicalName().substring(packageName.length() + 1))
+                        .build();
+            }
+        }
+        throw new IllegalArgumentException("expected a type for $T but was " + arg);
+    }
+
+    private static String toName(Object arg) {
+        if (arg instanceof CharSequence) {
+            return arg.toString();
+        }
+        if (arg instanceof FieldDefinition) {
+            return ((FieldDefinition) arg).getFieldName();
+        }
+        if (arg instanceof ParameterDefinition) {
+            return ((ParameterDefinition) arg).getParameterName();
+        }
+        if (arg instanceof MethodDefinition) {
+            return ((MethodDefinition) arg).getName();
+        }
+        throw new IllegalArgumentException("expected a name for $N but was " + arg);
+    }
+
+    private static String toStringLiteral(String value) {
+        var literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                case '\b':
+                    literal.append("\\b");
+                    break;
+                case '\f':
+                    literal.append("\\f");
+                    break;
+                default:
+                    if (Character.isISOControl(c)) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    /**
+     * Adds a statement in its own line, ended with a semicolon
+     *
+     * @param format the format of the statement, without the semicolon
+     * @param args the values of the placeholders
+     * @return the same builder object
+     */
+    public CodeBlockBuilder addStatement(String format, Object... args) {
+        startLine();
+        add(format, args);
+        currentText.append(';');
+        endLine(CodeBlock.Kind.TEXT, level);
+        return this;
+    }
+
+    /**
+     * Starts a control flow, such as {@code if (...)} or {@code for (...)}. The following lines are indented until
+     * the next part or the end of the control flow.
+     *
+     * @param format the format of the control flow, without the brace
+     * @param args the values of the placeholders
+     * @return the same builder object
+     */
+    public CodeBlockBuilder beginControlFlow(String format, Object... args) {
+        startLine();
+        add(format, args);
+        endLine(CodeBlock.Kind.BEGIN, level);
+        level++;
+        openControlFlows++;
+        return this;
+    }
+
+    /**
+     * Closes the current part of a control flow and starts the next one, such as {@code else} or
+     * {@code catch (...)}
+     *
+     * @param format the format of the next part, without the braces
+     * @param args the values of the placeholders
+     * @return the same builder object
+     */
+    public CodeBlockBuilder nextControlFlow(String format, Object... args) {
+        checkControlFlow();
+        startLine();
+        level--;
+        add(format, args);
+        endLine(CodeBlock.Kind.NEXT, level);
+        level++;
+        return this;
+    }
+
+    /**
+     * Closes the current control flow
+     *
+     * @return the same builder object
+     */
+    public CodeBlockBuilder endControlFlow() {
+        return endControlFlow("");
+    }
+
+    /**
+     * Closes the current control flow with a text after the brace, such as {@code while (...);}
+     *
+     * @param format the format of the text after the brace
+     * @param args the values of the placeholders
+     * @return the same builder object
+     */
+    public CodeBlockBuilder endControlFlow(String format, Object... args) {
+        checkControlFlow();
+        startLine();
+        level--;
+        openControlFlows--;
+        add(format, args);
+        endLine(CodeBlock.Kind.END, level);
+        return this;
+    }
+
+    private void checkControlFlow() {
+        if (openControlFlows == 0) {
+            throw new IllegalStateException("there is no control flow to continue or end");
+        }
+    }
+
+    /**
+     * Increases the indentation of the following lines
+     *
+     * @return the same builder object
+     */
+    public CodeBlockBuilder indent() {
+        level++;
+        return this;
+    }
+
+    /**
+     * Decreases the indentation of the following lines
+     *
+     * @return the same builder object
+     */
+    public CodeBlockBuilder unindent() {
+        if (level == 0) {
+            throw new IllegalStateException("the code block is not indented");
+        }
+        level--;
+        return this;
+    }
+
+    /**
+     * Adds the lines of another code block, at the current indentation
+     *
+     * @param codeBlock the code block
+     * @return the same builder object
+     */
+    public CodeBlockBuilder addCode(CodeBlock codeBlock) {
+        startLine();
+        for (CodeBlock.Line line : codeBlock.getLines()) {
+            lines.add(line.withLevel(level + line.getLevel()));
+        }
+        types.addAll(codeBlock.getTypes());
+        return this;
+    }
+
+    /**
+     *
+     * @return the code block
+     */
+    public CodeBlock build() {
+        if (openControlFlows > 0) {
+            throw new IllegalStateException(openControlFlows + " control flows were not ended");
+        }
+        startLine();
+        return new CodeBlock(List.copyOf(lines), List.copyOf(types));
+    }
+
+    private void startLine() {
+        if (currentText.length() > 0 || !currentParts.isEmpty()) {
+            endLine(CodeBlock.Kind.TEXT, level);
+        }
+    }
+
+    private void flushText() {
+        if (currentText.length() > 0) {
+            currentParts.add(currentText.toString());
+            currentText.setLength(0);
+        }
+    }
+
+    private void endLine(CodeBlock.Kind kind, int lineLevel) {
+        flushText();
+        if (currentParts.isEmpty()) {
+            currentParts.add("");
+        }
+        lines.add(new CodeBlock.Line(kind, lineLevel, currentParts.toArray()));
+        currentParts.clear();
+    }
+}
@@ -16,6 +16,8 @@
 package com.jgencode.gen;
 
 import com.jgencode.gen.type.AnnotationType;
+import com.jgencode.gen.type.TypeNamer;
+import com.jgencode.gen.values.FormatOptions;
 import com.jgencode.gen.values.Modifier;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -24,11 +26,9 @@ import org.slf4j.LoggerFactory;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static com.jgencode.gen.DefinitionBuilder.getIndentation;
 import static com.jgencode.gen.util.Constants.CLASSNAME_PARAMETER;
 import static com.jgencode.gen.util.Constants.CLOSE_BRACE;
 import static com.jgencode.gen.util.Constants.COMMA;
-import static com.jgencode.gen.util.Constants.OPEN_BRACE;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.SPACE;
 
@@ -47,6 +47,8 @@ public class ConstructorDefinitionBuilder {
 
     private String body;
 
+    private CodeBlock codeBlock;
+
     private ConstructorDefinitionBuilder() {
         this.modifiers = new LinkedHashSet<>();
         this.parameters = new LinkedHashSet<>();
@@ -70,6 +72,19 @@ public class ConstructorDefinitionBuilder {
      */
     public ConstructorDefinitionBuilder body(String body) {
         this.body = body;
+        this.codeBlock = null;
+        return this;
+    }
+
+    /**
+     * Defines the body of the constructor with a code block, whose types are imported by the definitions
+     *
+     * @param codeBlock the body of the constructor
+     * @return the same builder object
+     */
+    public ConstructorDefinitionBuilder body(CodeBlock codeBlock) {
+        this.body = null;
+        this.codeBlock = codeBlock;
         return this;
     }
 
@@ -114,60 +129,13 @@ public class ConstructorDefinitionBuilder {
         methodDefinition.modifiers = modifiers;
         methodDefinition.parameters = parameters;
         methodDefinition.body = body;
+        methodDefinition.codeBlock = codeBlock != null ? codeBlock : CodeBlock.ofText(body);
         methodDefinition.annotationTypes = annotationTypes;
-        methodDefinition.sourceLines = createSourceLines();
+        methodDefinition.sourceLines = methodDefinition.createSourceLines(TypeNamer.SIMPLE_NAME, FormatOptions.DEFAULT);
 
         return methodDefinition;
     }
 
-    private List<String> createSourceLines() {
-        List<String> lines = new ArrayList<>();
-
-        annotationTypes.forEach(annotationType -> lines.addAll(annotationType.createSourceLines()));
-
-        StringBuilder sourceString = new StringBuilder();
-        sourceString.append(Modifier.currentMethodAccessModifier(modifiers));
-        if (sourceString.length() > 0) {
-            sourceString.append(SPACE);
-        }
-
-        sourceString.append(SPACE).append(CLASSNAME_PARAMETER);
-        sourceString.append("(");
-
-        insertParameters(sourceString);
-
-        sourceString.append(")");
-
-        sourceString.append(OPEN_BRACE).append(System.lineSeparator());
-        if (StringUtils.isNotBlank(body)) {
-            String[] newBody = StringUtils.split(body, System.lineSeparator());
-            for (String newLine : newBody) {
-                sourceString.append(String.format("%s%s%n", getIndentation(1), newLine));
-            }
-        }
-        sourceString.append(CLOSE_BRACE).append(System.lineSeparator()).append(System.lineSeparator());
-
-        lines.addAll(sourceString.toString().lines().collect(Collectors.toList()));
-
-        return lines;
-    }
-
-    private void insertParameters(StringBuilder sourceString) {
-        if (parameters.isEmpty()) {
-            return;
-        }
-        var paramsToInsert = parameters.stream()
-                .filter(parameterDefinition -> Objects.nonNull(parameterDefinition.parameterName))
-                .map(parameter -> String.format("%s %s %s",
-                parameter.getAnnotationSource(),
-                parameter.getParameterType() == null ? EMPTY : parameter.getParameterType().getFullName(),
-                parameter.getParameterName()
-        )).collect(Collectors.joining(COMMA));
-        if (StringUtils.isNotBlank(paramsToInsert)) {
-            sourceString.append(paramsToInsert);
-        }
-    }
-
     /**
      *
      * @param annotationType
@@ -189,6 +157,8 @@ public class ConstructorDefinitionBuilder {
         private Set<ParameterDefinition> parameters;
         private List<String> sourceLines;
         private String body;
+        private CodeBlock codeBlock;
+        private final SharedSegment sharedSegment = new SharedSegment(true);
 
         private ConstructorDefinition() {
 
@@ -218,6 +188,10 @@ public class ConstructorDefinitionBuilder {
             return sourceLines;
         }
 
+        SharedSegment getSharedSegment() {
+            return sharedSegment;
+        }
+
         /**
          *
          * @return
@@ -226,5 +200,86 @@ public class ConstructorDefinitionBuilder {
             return body;
         }
 
+        /**
+         * The body of the constructor. A body given as text is split into the lines of a code block when the constructor is
+         * built.
+         *
+         * @return the code block of the body, empty if the constructor has no body
+         */
+        public CodeBlock getCodeBlock() {
+            return codeBlock;
+        }
+
+        /**
+         *
+         * @return
+         */
+        public Set<AnnotationType> getAnnotationTypes() {
+            return annotationTypes;
+        }
+
+        /**
+         * The source lines rendered with a namer. The name of the class is the {@code CLASSNAME_PARAMETER}
+         * placeholder.
+         *
+         * @param namer how the classes of the constructor are named
+         * @return the source lines of the constructor
+         */
+        public List<String> getSourceLines(TypeNamer namer) {
+            return getSourceLines(namer, FormatOptions.DEFAULT);
+        }
+
+        /**
+         *
+         * @param namer how the classes are named
+         * @param options the layout of the source code
+         * @return the source lines
+         */
+        public List<String> getSourceLines(TypeNamer namer, FormatOptions options) {
+            return namer == TypeNamer.SIMPLE_NAME && options == FormatOptions.DEFAULT ? sourceLines
+                    : createSourceLines(namer, options);
+        }
+
+        private List<String> createSourceLines(TypeNamer namer, FormatOptions options) {
+            List<String> lines = new ArrayList<>();
+
+            annotationTypes.forEach(annotationType -> lines.addAll(annotationType.createSourceLines(namer, options)));
+
+            StringBuilder sourceString = new StringBuilder();
+            sourceString.append(Modifier.currentMethodAccessModifier(modifiers));
+            if (sourceString.length() > 0) {
+                sourceString.append(SPACE);
+            }
+
+            sourceString.append(SPACE).append(CLASSNAME_PARAMETER);
+            sourceString.append("(");
+
+            insertParameters(sourceString, namer, options);
+
+            sourceString.append(")");
+
+            options.addOpenBrace(lines, sourceString.toString());
+            codeBlock.addSourceLines(lines, namer, options, 1);
+            lines.add(CLOSE_BRACE);
+            options.addBlankLines(lines);
+
+            return lines;
+        }
+
+        private void insertParameters(StringBuilder sourceString, TypeNamer namer, FormatOptions options) {
+            if (parameters.isEmpty()) {
+                return;
+            }
+            var paramsToInsert = parameters.stream()
+                    .filter(parameterDefinition -> Objects.nonNull(parameterDefinition.parameterName))
+                    .map(parameter -> parameter.getAnnotationSource(namer, options) + SPACE
+                    + (parameter.getParameterType() == null ? EMPTY : namer.typeName(parameter.getParameterType()))
+                    + SPACE + parameter.getParameterName())
+                    .collect(Collectors.joining(COMMA));
+            if (StringUtils.isNotBlank(paramsToInsert)) {
+                sourceString.append(paramsToInsert);
+            }
+        }
+
     }
 }
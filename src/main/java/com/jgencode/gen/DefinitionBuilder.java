@@ -15,12 +15,27 @@
  */
 package com.jgencode.gen;
 
+import com.jgencode.gen.listener.GenerationListener;
+import com.jgencode.gen.output.RenderCache;
+import com.jgencode.gen.output.RenderCache.CachedSource;
 import com.jgencode.gen.type.AnnotationType;
 import com.jgencode.gen.type.ClassType;
+import com.jgencode.gen.type.TypeNamer;
+import com.jgencode.gen.util.Fingerprint;
+import com.jgencode.gen.util.FingerprintBuilder;
+import com.jgencode.gen.util.Indentation;
+import com.jgencode.gen.values.FormatOptions;
 import com.jgencode.gen.values.Modifier;
 import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
@@ -29,11 +44,10 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 import static com.jgencode.gen.util.Constants.PERIOD;
 import static com.jgencode.gen.util.Constants.SEARCH_DOT;
+import static com.jgencode.gen.util.Constants.SEMI_COLON;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -43,6 +57,8 @@ import static java.util.stream.Collectors.toList;
  */
 public abstract class DefinitionBuilder {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefinitionBuilder.class);
+
     /**
      *
      */
@@ -60,10 +76,6 @@ public abstract class DefinitionBuilder {
      */
 
     protected List<String> codeLines;
-    /**
-     *
-     */
-    protected Set<String> classesToImport = new TreeSet<>();
     /**
      *
      */
@@ -76,15 +88,21 @@ public abstract class DefinitionBuilder {
      *
      */
     protected Set<AnnotationType> annotationTypes = new LinkedHashSet<>();
-    static int spaceIndent = 4;
+
+    private Definition builtDefinition;
+    private Fingerprint builtFingerprint;
+    private FormatOptions builtFingerprintOptions;
+    private final SegmentCache memberSegments = new SegmentCache();
+    private boolean reusingSegments;
+    private RenderCache renderCache;
 
     /**
      *
      * @param level
-     * @return
+     * @return the default indentation of the level
      */
     public static String getIndentation(int level) {
-        return StringUtils.repeat(StringUtils.SPACE, spaceIndent * level);
+        return Indentation.DEFAULT.get(level);
     }
 
     /**
@@ -102,7 +120,7 @@ public abstract class DefinitionBuilder {
      * @return
      */
     protected String getPackageDeclaration() {
-        return String.format("package %s;%n", packageDefinition);
+        return "package " + packageDefinition + SEMI_COLON;
     }
 
     /**
@@ -143,6 +161,7 @@ public abstract class DefinitionBuilder {
      * @return
      */
     public DefinitionBuilder addClassToImport(ClassType classType) {
+        invalidate();
         classesTypeToImport.add(classType);
         return this;
     }
@@ -153,6 +172,7 @@ public abstract class DefinitionBuilder {
      * @return
      */
     public DefinitionBuilder addAnnotationType(AnnotationType annotationType) {
+        invalidate();
         this.annotationTypes.add(annotationType);
         return this;
     }
@@ -163,6 +183,7 @@ public abstract class DefinitionBuilder {
      * @return
      */
     public DefinitionBuilder addField(FieldDefinitionBuilder.FieldDefinition fieldDefinition) {
+        invalidate();
         Optional.ofNullable(fields).orElseGet(() -> this.fields = new LinkedHashSet<>()).add(fieldDefinition);
         return this;
     }
@@ -189,31 +210,281 @@ public abstract class DefinitionBuilder {
      * @return
      */
     public DefinitionBuilder addModifier(Modifier modifier) {
+        invalidate();
         this.modifiers.add(modifier);
         return this;
     }
 
     /**
+     * Cache of rendered source code used by {@link #build()}. When the cache has the fingerprint of this builder the
+     * definition is loaded from it instead of rendered, otherwise the rendered definition is stored in it.
      *
-     * @return
+     * @param renderCache the render cache, or {@code null} to always render
+     * @return the same builder object
+     */
+    public DefinitionBuilder renderCache(RenderCache renderCache) {
+        this.renderCache = renderCache;
+        return this;
+    }
+
+    /**
+     * Discards the definition and the fingerprint kept from the last build. Every mutator of the builder calls it,
+     * so subclasses that change the protected properties must call it too.
+     */
+    protected void invalidate() {
+        builtDefinition = null;
+        builtFingerprint = null;
+    }
+
+    /**
+     * Builds the definition. The definition is kept until the builder is modified, so building again returns the
+     * same immutable definition without rendering the source code.
+     *
+     * @return the definition
      */
     public Definition build() {
-        doBuildCode();
-        var definition = new Definition();
-        definition.className = className;
-        definition.modifiers = modifiers;
-        definition.packageDefinition = packageDefinition;
-        definition.packagePath = createPackagePath();
-        definition.codeLines = codeLines;
+        return build(FormatOptions.DEFAULT, GenerationListener.NONE);
+    }
+
+    /**
+     * Builds the definition reporting the time, lines and characters of every rendering phase to a listener. Nothing
+     * is reported when the definition kept from a previous build is returned.
+     *
+     * @param listener the listener
+     * @return the definition
+     */
+    public Definition build(GenerationListener listener) {
+        return build(FormatOptions.DEFAULT, listener);
+    }
+
+    /**
+     * Builds the definition with the layout of some format options. The definition is kept until the builder is
+     * modified or built with other options.
+     *
+     * @param options the layout of the source code
+     * @return the definition
+     */
+    public Definition build(FormatOptions options) {
+        return build(options, GenerationListener.NONE);
+    }
+
+    /**
+     * Builds the definition with the layout of some format options, reporting every rendering phase to a listener
+     *
+     * @param options the layout of the source code
+     * @param listener the listener
+     * @return the definition
+     */
+    public Definition build(FormatOptions options, GenerationListener listener) {
+        return build(options, listener, renderCache);
+    }
+
+    Definition build(FormatOptions options, GenerationListener listener, RenderCache cache) {
+        var definition = builtDefinition;
+        if (definition != null && definition.formatOptions.equals(options)) {
+            return definition;
+        }
+        if (cache == null) {
+            definition = render(options, listener);
+        } else {
+            definition = renderCached(options, listener, cache);
+        }
+        builtDefinition = definition;
+        return definition;
+    }
+
+    private Definition renderCached(FormatOptions options, GenerationListener listener, RenderCache cache) {
+        var fingerprint = fingerprint(options);
+        try {
+            var cachedSource = cache.get(fingerprint);
+            if (cachedSource != null) {
+                return new Definition(this, options, cachedSource);
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("error reading {} from the render cache", fingerprint, ex);
+        }
+        var definition = render(options, listener);
+        try {
+            cache.put(fingerprint, definition);
+        } catch (IOException ex) {
+            LOGGER.warn("error writing {} to the render cache", fingerprint, ex);
+        }
         return definition;
     }
 
+    private Definition render(FormatOptions options, GenerationListener listener) {
+        var sourceParts = new SourceParts();
+        var writer = new SourceWriter(sourceParts, options, listener, packageDefinition, className);
+        reusingSegments = true;
+        try {
+            writeCode(writer);
+            writer.endPhase();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            reusingSegments = false;
+        }
+        return new Definition(this, options, sourceParts.toParts(), writer.getLineCount(), null);
+    }
+
+    /**
+     * Creates a definition that does not keep its code lines. The source code is rendered from this builder every
+     * time the definition is written, so large classes never have their text held in memory.
+     *
+     * @return the definition
+     */
+    public Definition buildStreaming() {
+        return buildStreaming(FormatOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a definition that does not keep its code lines, rendered with the layout of some format options
+     *
+     * @param options the layout of the source code
+     * @return the definition
+     */
+    public Definition buildStreaming(FormatOptions options) {
+        return new Definition(this, options, null, 0, this);
+    }
+
+    /**
+     * Renders the source code of the definition in a single pass
+     *
+     * @param out where the source code is written
+     * @throws IOException if the appendable fails
+     */
+    public void writeTo(Appendable out) throws IOException {
+        writeTo(out, GenerationListener.NONE);
+    }
+
+    /**
+     * Renders the source code of the definition in a single pass, reporting every phase to a listener
+     *
+     * @param out where the source code is written
+     * @param listener the listener
+     * @return the number of characters written
+     * @throws IOException if the appendable fails
+     */
+    public long writeTo(Appendable out, GenerationListener listener) throws IOException {
+        return writeTo(out, FormatOptions.DEFAULT, listener);
+    }
+
+    /**
+     * Renders the source code of the definition in a single pass, with the layout of some format options
+     *
+     * @param out where the source code is written
+     * @param options the layout of the source code
+     * @param listener the listener
+     * @return the number of characters written
+     * @throws IOException if the appendable fails
+     */
+    public long writeTo(Appendable out, FormatOptions options, GenerationListener listener) throws IOException {
+        var writer = new SourceWriter(out, options, listener, packageDefinition, className);
+        writeCode(writer);
+        writer.endPhase();
+        return writer.getCharCount();
+    }
+
+    /**
+     * do build code. The result is saved in {@link #codeLines} internal property
+     */
+    protected void doBuildCode() {
+        var source = new StringBuilder();
+        try {
+            writeTo(source);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        codeLines = Collections.unmodifiableList(source.toString().lines().collect(toList()));
+    }
+
+    /**
+     * Writes the source code of the definition
+     *
+     * @param writer the source writer
+     * @throws IOException if the writer fails
+     */
+    abstract protected void writeCode(SourceWriter writer) throws IOException;
+
+    /**
+     * Computes a fingerprint of everything that takes part in the source code of this definition: package, name,
+     * modifiers, fields, methods, annotations and the generic types that are used. Two builders with the same
+     * fingerprint render the same source code. It is kept until the builder is modified.
+     *
+     * @return the fingerprint with the default format options
+     */
+    public Fingerprint fingerprint() {
+        return fingerprint(FormatOptions.DEFAULT);
+    }
+
     /**
-     * do build code
+     * Computes the fingerprint of the definition rendered with some format options
+     *
+     * @param options the layout of the source code
+     * @return the fingerprint
+     */
+    public Fingerprint fingerprint(FormatOptions options) {
+        var fingerprint = builtFingerprint;
+        if (fingerprint == null || !builtFingerprintOptions.equals(options)) {
+            var fingerprintBuilder = FingerprintBuilder.newBuilder();
+            fingerprintBuilder.add(options.getIndentation().getUnit())
+                    .add(options.getLineSeparator())
+                    .add(options.getBraceStyle().name())
+                    .add(options.getBlankLinesBetweenMembers())
+                    .add(options.isIndentBlankLines());
+            addToFingerprint(fingerprintBuilder);
+            fingerprint = fingerprintBuilder.build();
+            builtFingerprint = fingerprint;
+            builtFingerprintOptions = options;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Adds the inputs of this definition to a fingerprint. Subclasses add their own properties.
+     *
+     * @param fingerprintBuilder the fingerprint builder
      */
-    abstract protected void doBuildCode();
+    protected void addToFingerprint(FingerprintBuilder fingerprintBuilder) {
+        fingerprintBuilder.add(getClass().getName())
+                .add(packageDefinition)
+                .add(className)
+                .add(modifiers.size());
+        Modifier.inDeclarationOrder(modifiers).forEach(modifier -> fingerprintBuilder.add(modifier.name()));
+        fingerprintBuilder.add(classesTypeToImport.size());
+        classesTypeToImport.forEach(fingerprintBuilder::add);
+        fingerprintBuilder.add(annotationTypes.size());
+        annotationTypes.forEach(fingerprintBuilder::add);
+        if (fields == null) {
+            fingerprintBuilder.add(0);
+            return;
+        }
+        fingerprintBuilder.add(fields.size());
+        fields.forEach(field -> {
+            fingerprintBuilder.addAll(field.getSourceLines())
+                    .add(field.getFieldName())
+                    .add(field.getFieldType())
+                    .add(field.getClassType())
+                    .add(field.isGetter())
+                    .add(field.isSetter());
+            field.getAnnotationType().forEach(fingerprintBuilder::add);
+        });
+    }
 
-    private Path createPackagePath() {
+    /**
+     * Path of the source file, relative to the destination directory, with {@code /} as separator
+     *
+     * @return the relative path of the source file
+     */
+    public String getSourceFileName() {
+        return createSourceFileName(packageDefinition, className);
+    }
+
+    private static String createSourceFileName(String packageDefinition, String className) {
+        return packageDefinition.replace(PERIOD, "/") + "/" + className + ".java";
+    }
+
+    private static Path createPackagePath(String packageDefinition) {
         var packageDefinitionArray = packageDefinition.split(SEARCH_DOT);
         return Paths.get(packageDefinitionArray[0], ArrayUtils.subarray(packageDefinitionArray, 1,
                 packageDefinitionArray.length));
@@ -225,78 +496,247 @@ public abstract class DefinitionBuilder {
      * @return
      */
     public DefinitionBuilder addFields(Collection<FieldDefinitionBuilder.FieldDefinition> fieldsDefinition) {
+        invalidate();
         Optional.ofNullable(fields).orElseGet(() -> this.fields = new LinkedHashSet<>()).addAll(fieldsDefinition);
         return this;
     }
 
     /**
+     * Writes the source lines of the fields
      *
-     * @return
+     * @param writer the source writer
+     * @param namer how the classes of the fields are named
+     * @throws IOException if the writer fails
+     */
+    protected void writeFields(SourceWriter writer, TypeNamer namer) throws IOException {
+        if (fields == null) {
+            return;
+        }
+        for (FieldDefinitionBuilder.FieldDefinition field : fields) {
+            writeMember(writer, namer, field, fieldWriter -> fieldWriter.lines(
+                    field.getSourceLines(namer, fieldWriter.getOptions())));
+        }
+    }
+
+    /**
+     * Writes a member of the definition. While {@link #build()} renders the definition, the source code of every
+     * member is kept, and the next builds write it again without rendering it. It is not kept when the classes of
+     * the definition must be named with their package, nor when the definition is written without being built.
+     *
+     * @param writer the source writer
+     * @param namer how the classes of the member are named
+     * @param member the definition of the member
+     * @param memberWriter renders the member
+     * @throws IOException if the writer fails
      */
-    protected List<String> createFields() {
-        if (fields == null || fields.isEmpty()) {
-            return Collections.emptyList();
+    protected void writeMember(SourceWriter writer, TypeNamer namer, Object member, MemberWriter memberWriter)
+            throws IOException {
+        writeSegment(memberSegments, writer, namer, member, memberWriter);
+    }
+
+    void writeSegment(SegmentCache segments, SourceWriter writer, TypeNamer namer, Object member,
+            MemberWriter memberWriter) throws IOException {
+        if (reusingSegments && namer == TypeNamer.SIMPLE_NAME) {
+            segments.write(writer, member, memberWriter);
+        } else {
+            memberWriter.write(writer);
+        }
+    }
+
+    /**
+     * Writes the annotations of the definition
+     *
+     * @param writer the source writer
+     * @param namer how the classes of the annotations are named
+     * @throws IOException if the writer fails
+     */
+    protected void writeAnnotations(SourceWriter writer, TypeNamer namer) throws IOException {
+        for (AnnotationType annotationType : annotationTypes) {
+            writer.lines(annotationType.createSourceLines(namer, writer.getOptions()));
         }
-        return fields.stream().flatMap(field -> field.sourceLines.stream())
-                .map(line -> String.format("%s%s", getIndentation(1), line))
-                .collect(toList());
     }
 
     /**
-     * create import from classes
+     * Collects the classes used by the definition in a new resolver
+     *
+     * @return the resolver with the classes to import
+     */
+    protected ImportResolver resolveImports() {
+        var resolver = new ImportResolver(packageDefinition, className);
+        collectTypes(resolver);
+        return resolver;
+    }
+
+    /**
+     * Adds the classes used by the definition to a resolver. Subclasses add their own declaration before calling this
+     * method, and their members after it.
+     *
+     * @param resolver the resolver
      */
-    protected void importClasses() {
-        classesToImport.addAll(
-                classesTypeToImport.stream().map(ClassType::getFullClassName).collect(Collectors.toSet())
-        );
-        //from fields
+    protected void collectTypes(ImportResolver resolver) {
+        classesTypeToImport.forEach(resolver::add);
+        annotationTypes.forEach(resolver::add);
         if (fields != null) {
-            classesToImport.addAll(fields.stream().filter(
-                    field -> field.getClassType() != null && StringUtils.isNotBlank(
-                    field.getClassType().getPackageName())).map(field -> field.getClassType().getFullClassName())
-                    .filter(
-                            StringUtils::isNotBlank).collect(Collectors.toSet()));
-            //from annotation
-            classesToImport.addAll(
-                    fields.stream().flatMap(field -> field.getAnnotationType().stream())
-                            .map(annotationType -> annotationType.getClassType().getFullClassName())
-                            .collect(toList()));
-        }
-        //from class annotations
-        annotationTypes.forEach(annotationType -> classesToImport.add(annotationType.getClassType()
-                .getFullClassName()));
-        annotationTypes.stream().flatMap(annotationType -> annotationType.getAttributes().values().stream())
-                .filter(value -> value instanceof ClassType)
-                .map(ClassType.class::cast)
-                .forEach(classType -> classesToImport.add(classType.getFullClassName()));
-
-        classesToImport
-                .stream()
-                .filter(clazz -> !clazz.equals("Override"))
-                .filter(clazz -> {
-                    var packageClassName = StringUtils.substringBeforeLast(clazz, PERIOD);
-                    return !StringUtils.equals(packageClassName, packageDefinition);
-                })
-                .forEach(classToImport -> codeLines.add(String.format("import %s;", classToImport)));
-    }
-
-    /**
-     * A definition class
+            fields.forEach(resolver::addField);
+        }
+    }
+
+    /**
+     * Writes the import statements of the classes collected by a resolver
+     *
+     * @param writer the source writer
+     * @param resolver the resolver
+     * @throws IOException if the writer fails
+     */
+    protected void writeImports(SourceWriter writer, ImportResolver resolver) throws IOException {
+        for (String classToImport : resolver.getImports()) {
+            writer.line("import " + classToImport + ";");
+        }
+    }
+
+    /**
+     * Renders a member of a definition
+     */
+    @FunctionalInterface
+    protected interface MemberWriter {
+
+        /**
+         *
+         * @param writer the source writer
+         * @throws IOException if the writer fails
+         */
+        void write(SourceWriter writer) throws IOException;
+    }
+
+    /**
+     * A definition class. It is immutable: later changes of its builder are not seen by the definition, except by the
+     * ones created by {@link DefinitionBuilder#buildStreaming()}, that render the builder when they are written.
      */
     public static class Definition {
 
-        private String className;
-        private Set<Modifier> modifiers;
-        private String packageDefinition;
-        private Path packagePath;
-        private List<String> codeLines;
+        private final String className;
+        private final FormatOptions formatOptions;
+        private final Set<Modifier> modifiers;
+        private final String packageDefinition;
+        private final Path packagePath;
+        private final List<String> sourceParts;
+        private final long charCount;
+        private final int lineCount;
+        private final DefinitionBuilder source;
+        private final CachedSource cachedSource;
+        private volatile List<String> codeLines;
+
+        private Definition(DefinitionBuilder builder, FormatOptions formatOptions, List<String> sourceParts,
+                int lineCount, DefinitionBuilder source) {
+            this(builder.packageDefinition, builder.className, builder.modifiers, formatOptions, sourceParts,
+                    lineCount, source, null);
+        }
+
+        private Definition(DefinitionBuilder builder, FormatOptions formatOptions, CachedSource cachedSource) {
+            this(builder.packageDefinition, builder.className, builder.modifiers, formatOptions, null,
+                    cachedSource.getLineCount(), null, cachedSource);
+        }
 
         /**
+         * Creates a definition from source code already rendered in parts, such as an instance of a
+         * {@link ClassTemplate}
+         */
+        Definition(String packageDefinition, String className, Set<Modifier> modifiers, FormatOptions formatOptions,
+                List<String> sourceParts, int lineCount) {
+            this(packageDefinition, className, modifiers, formatOptions, sourceParts, lineCount, null, null);
+        }
+
+        private Definition(String packageDefinition, String className, Set<Modifier> modifiers,
+                FormatOptions formatOptions, List<String> sourceParts, int lineCount, DefinitionBuilder source,
+                CachedSource cachedSource) {
+            this.className = className;
+            this.formatOptions = formatOptions;
+            this.modifiers = Collections.unmodifiableSet(new LinkedHashSet<>(modifiers));
+            this.packageDefinition = packageDefinition;
+            this.packagePath = createPackagePath(packageDefinition);
+            this.sourceParts = sourceParts;
+            if (cachedSource != null) {
+                this.charCount = cachedSource.getCharCount();
+            } else {
+                this.charCount = sourceParts == null ? 0 : sourceParts.stream().mapToLong(String::length).sum();
+            }
+            this.lineCount = lineCount;
+            this.source = source;
+            this.cachedSource = cachedSource;
+        }
+
+        /**
+         * The lines of the source code. A definition created by {@link DefinitionBuilder#buildStreaming()} renders
+         * them on every call.
          *
          * @return
          */
         public List<String> getCodeLines() {
-            return codeLines;
+            if (source != null) {
+                var sourceCode = new StringBuilder();
+                try {
+                    source.writeTo(sourceCode, formatOptions, GenerationListener.NONE);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return Collections.unmodifiableList(sourceCode.toString().lines().collect(toList()));
+            }
+            var lines = codeLines;
+            if (lines == null) {
+                lines = Collections.unmodifiableList(getSourceCode().lines().collect(toList()));
+                codeLines = lines;
+            }
+            return lines;
+        }
+
+        private String getSourceCode() {
+            if (cachedSource == null) {
+                return String.join("", sourceParts);
+            }
+            var sourceCode = new StringBuilder((int) charCount);
+            try {
+                cachedSource.writeTo(sourceCode);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return sourceCode.toString();
+        }
+
+        /**
+         * Writes the source code of the definition
+         *
+         * @param out where the source code is written
+         * @throws IOException if the appendable fails
+         */
+        public void writeTo(Appendable out) throws IOException {
+            if (source != null) {
+                source.writeTo(out, formatOptions, GenerationListener.NONE);
+                return;
+            }
+            if (cachedSource != null) {
+                cachedSource.writeTo(out);
+                return;
+            }
+            for (String sourcePart : sourceParts) {
+                out.append(sourcePart);
+            }
+        }
+
+        /**
+         * Writes the source code of the definition encoded in UTF-8. The stream is flushed but not closed.
+         *
+         * @param out where the source code is written
+         * @throws IOException if the stream fails
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            if (cachedSource != null) {
+                cachedSource.writeTo(out);
+                out.flush();
+                return;
+            }
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writeTo(writer);
+            writer.flush();
         }
 
         /**
@@ -307,6 +747,22 @@ public abstract class DefinitionBuilder {
             return className;
         }
 
+        /**
+         *
+         * @return the layout of the source code
+         */
+        public FormatOptions getFormatOptions() {
+            return formatOptions;
+        }
+
+        /**
+         *
+         * @return {@code true} if the source code was loaded from a {@link RenderCache} instead of rendered
+         */
+        public boolean isFromRenderCache() {
+            return cachedSource != null;
+        }
+
         /**
          *
          * @return
@@ -331,5 +787,42 @@ public abstract class DefinitionBuilder {
             return packagePath;
         }
 
+        /**
+         *
+         * @return the package and the name of the class, separated by a period
+         */
+        public String getQualifiedName() {
+            return packageDefinition + PERIOD + className;
+        }
+
+        /**
+         * Number of characters of the source code, zero for a definition created by
+         * {@link DefinitionBuilder#buildStreaming()}
+         *
+         * @return the number of characters
+         */
+        public long getCharCount() {
+            return charCount;
+        }
+
+        /**
+         * Number of lines written by the rendering, zero for a definition created by
+         * {@link DefinitionBuilder#buildStreaming()}
+         *
+         * @return the number of lines
+         */
+        public int getLineCount() {
+            return lineCount;
+        }
+
+        /**
+         * Path of the source file, relative to the root of the sources, with {@code /} as separator
+         *
+         * @return the relative path of the source file
+         */
+        public String getSourceFileName() {
+            return createSourceFileName(packageDefinition, className);
+        }
+
     }
 }
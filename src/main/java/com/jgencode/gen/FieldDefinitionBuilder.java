@@ -17,6 +17,8 @@ package com.jgencode.gen;
 
 import com.jgencode.gen.type.AnnotationType;
 import com.jgencode.gen.type.ClassType;
+import com.jgencode.gen.type.TypeNamer;
+import com.jgencode.gen.values.FormatOptions;
 import com.jgencode.gen.values.Modifier;
 import org.apache.commons.lang3.StringUtils;
 
@@ -27,7 +29,6 @@ import java.util.Optional;
 import java.util.Set;
 
 import static com.jgencode.gen.util.Constants.SEMI_COLON;
-import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.SPACE;
 
 /**
@@ -154,34 +155,10 @@ public class FieldDefinitionBuilder {
         fieldDefinition.setter = setter;
         fieldDefinition.annotationType = annotationTypes;
         fieldDefinition.defaultValue = defaultValue;
-        fieldDefinition.sourceLines = createSourceLine();
+        fieldDefinition.sourceLines = fieldDefinition.createSourceLines(TypeNamer.SIMPLE_NAME, FormatOptions.DEFAULT);
         return fieldDefinition;
     }
 
-    private List<String> createSourceLine() {
-        List<String> lines = new ArrayList<>();
-        annotationTypes.forEach(annotationType -> lines.addAll(annotationType.createSourceLines()));
-
-        var sourceLine = new StringBuilder();
-        sourceLine.append(Modifier.currentAccessModifier(modifiers))
-                .append(SPACE);
-        if (StringUtils.isBlank(nativeType)) {
-            sourceLine.append(classType.getClassName());
-        } else {
-            sourceLine.append(nativeType);
-        }
-        sourceLine.append(SPACE);
-        sourceLine.append(fieldName);
-        if (StringUtils.isNotBlank(defaultValue)) {
-            sourceLine.append(" = ");
-            sourceLine.append(defaultValue);
-        }
-        sourceLine.append(SEMI_COLON);
-        lines.add(sourceLine.toString());
-        lines.add(EMPTY);
-        return lines;
-    }
-
     /**
      * Field definition class
      */
@@ -213,6 +190,15 @@ public class FieldDefinitionBuilder {
             return Optional.ofNullable(classType).map(ClassType::getClassName).orElse(nativeType);
         }
 
+        /**
+         *
+         * @param namer how the class of the field is named
+         * @return the type of the field
+         */
+        public String getFieldType(TypeNamer namer) {
+            return Optional.ofNullable(classType).map(namer::name).orElse(nativeType);
+        }
+
         /**
          *
          * @return
@@ -269,6 +255,50 @@ public class FieldDefinitionBuilder {
             return sourceLines;
         }
 
+        /**
+         *
+         * @param namer how the classes of the field are named
+         * @return the source lines of the field
+         */
+        public List<String> getSourceLines(TypeNamer namer) {
+            return getSourceLines(namer, FormatOptions.DEFAULT);
+        }
+
+        /**
+         *
+         * @param namer how the classes of the field are named
+         * @param options the layout of the source code
+         * @return the source lines of the field
+         */
+        public List<String> getSourceLines(TypeNamer namer, FormatOptions options) {
+            return namer == TypeNamer.SIMPLE_NAME && options == FormatOptions.DEFAULT ? sourceLines
+                    : createSourceLines(namer, options);
+        }
+
+        private List<String> createSourceLines(TypeNamer namer, FormatOptions options) {
+            List<String> lines = new ArrayList<>();
+            annotationType.forEach(annotation -> lines.addAll(annotation.createSourceLines(namer, options)));
+
+            var sourceLine = new StringBuilder();
+            sourceLine.append(Modifier.currentAccessModifier(modifiers))
+                    .append(SPACE);
+            if (StringUtils.isBlank(nativeType)) {
+                sourceLine.append(namer.name(classType));
+            } else {
+                sourceLine.append(nativeType);
+            }
+            sourceLine.append(SPACE);
+            sourceLine.append(fieldName);
+            if (StringUtils.isNotBlank(defaultValue)) {
+                sourceLine.append(" = ");
+                sourceLine.append(defaultValue);
+            }
+            sourceLine.append(SEMI_COLON);
+            lines.add(sourceLine.toString());
+            options.addBlankLines(lines);
+            return lines;
+        }
+
         private FieldDefinition() {
 
         }
@@ -0,0 +1,594 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.jfr.JfrGenerationListener;
+import com.jgencode.gen.listener.GenerationListener;
+import com.jgencode.gen.output.DirectoryOutputSink;
+import com.jgencode.gen.output.OutputSink;
+import com.jgencode.gen.output.RenderCache;
+import com.jgencode.gen.util.Fingerprint;
+import com.jgencode.gen.values.FormatOptions;
+import com.jgencode.gen.values.GenerationPhase;
+import com.jgencode.gen.values.WriteMode;
+import com.jgencode.gen.values.WriteStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Builder class for a batch that builds and writes many definitions concurrently
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class GenerationBatchBuilder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationBatchBuilder.class);
+
+    private static final Fingerprint UNKNOWN_FINGERPRINT = new Fingerprint(0, 0);
+
+    private final Path destinationPath;
+    private final List<DefinitionBuilder> definitionBuilders = new ArrayList<>();
+    private Executor executor;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private WriteMode writeMode = WriteMode.OVERWRITE;
+    private boolean incremental;
+    private boolean pruneStale;
+    private Path manifestPath;
+    private OutputSink outputSink;
+    private boolean atomicWrites;
+    private GenerationListener listener = GenerationListener.NONE;
+    private FormatOptions formatOptions = FormatOptions.DEFAULT;
+    private RenderCache renderCache;
+
+    private GenerationBatchBuilder(Path destinationPath) {
+        this.destinationPath = destinationPath;
+    }
+
+    /**
+     * Creates a batch builder
+     *
+     * @param destinationPath root directory where the .java files will be written
+     * @return a new batch builder
+     */
+    public static GenerationBatchBuilder createBuilder(Path destinationPath) {
+        return new GenerationBatchBuilder(destinationPath);
+    }
+
+    /**
+     * Creates a batch builder that writes the definitions to an output sink instead of a directory
+     *
+     * @param outputSink where the definitions are written
+     * @return a new batch builder
+     */
+    public static GenerationBatchBuilder createBuilder(OutputSink outputSink) {
+        return new GenerationBatchBuilder(null).outputSink(outputSink);
+    }
+
+    /**
+     * Adds a class, interface or record definition builder to the batch
+     *
+     * @param definitionBuilder the definition builder
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder addDefinitionBuilder(DefinitionBuilder definitionBuilder) {
+        definitionBuilders.add(definitionBuilder);
+        return this;
+    }
+
+    /**
+     * Adds a collection of definition builders to the batch
+     *
+     * @param definitionBuilders the definition builders
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder addDefinitionBuilders(Collection<? extends DefinitionBuilder> definitionBuilders) {
+        this.definitionBuilders.addAll(definitionBuilders);
+        return this;
+    }
+
+    /**
+     * Executor on which the definitions are built and written. If it is not assigned, a fork-join pool with
+     * {@link #parallelism(int)} threads is created for every run. On Java 21 or later a virtual thread executor can be
+     * used here.
+     *
+     * @param executor the executor
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Number of threads of the fork-join pool used when no executor is assigned
+     *
+     * @param parallelism number of threads
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Defines how the files are written when they already exist. See {@link JavaFileBuilder#writeMode(WriteMode)}
+     *
+     * @param writeMode the write mode
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder writeMode(WriteMode writeMode) {
+        this.writeMode = writeMode;
+        return this;
+    }
+
+    /**
+     * In incremental mode the fingerprint of every definition is compared with the one saved in the
+     * {@link GenerationManifest} of the previous run. Definitions whose fingerprint did not change, and whose file
+     * still exists, are neither built nor written.
+     *
+     * @param incremental {@code true} to enable the incremental mode
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder incremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    /**
+     * Deletes the files written by the previous run for definitions that are no longer in the batch, and the package
+     * directories that become empty. The files to delete are taken from the {@link GenerationManifest}, so the
+     * destination directory is not walked.
+     *
+     * @param pruneStale {@code true} to delete the stale files
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder pruneStale(boolean pruneStale) {
+        this.pruneStale = pruneStale;
+        return this;
+    }
+
+    /**
+     * Location of the manifest used in incremental mode and to prune stale files. By default it is
+     * {@link GenerationManifest#defaultPath(Path)}.
+     *
+     * @param manifestPath the manifest file
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder manifestPath(Path manifestPath) {
+        this.manifestPath = manifestPath;
+        return this;
+    }
+
+    /**
+     * Writes every file through a temporary file and an atomic move. It only applies when no output sink is assigned.
+     *
+     * @param atomicWrites {@code true} to write the files atomically
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder atomicWrites(boolean atomicWrites) {
+        this.atomicWrites = atomicWrites;
+        return this;
+    }
+
+    /**
+     * Where the definitions are written. By default they are written as files under the destination directory with a
+     * {@link DirectoryOutputSink}. The sink is not closed by the batch.
+     *
+     * @param outputSink the output sink
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder outputSink(OutputSink outputSink) {
+        this.outputSink = outputSink;
+        return this;
+    }
+
+    /**
+     * Listener that receives the phases of every definition, with their timings. It is called concurrently from the
+     * threads of the batch.
+     *
+     * @param listener the listener
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder listener(GenerationListener listener) {
+        this.listener = listener == null ? GenerationListener.NONE : listener;
+        return this;
+    }
+
+    /**
+     * Layout of the source code of every definition of the batch. The options take part in the fingerprints, so an
+     * incremental run with other options writes every definition again.
+     *
+     * @param formatOptions the format options, {@link FormatOptions#DEFAULT} by default
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder formatOptions(FormatOptions formatOptions) {
+        this.formatOptions = formatOptions == null ? FormatOptions.DEFAULT : formatOptions;
+        return this;
+    }
+
+    /**
+     * Cache of rendered source code shared by the definitions of the batch. It is used instead of the render cache of
+     * each builder.
+     *
+     * @param renderCache the render cache, or {@code null} to use the one of each builder
+     * @return the same builder object
+     */
+    public GenerationBatchBuilder renderCache(RenderCache renderCache) {
+        this.renderCache = renderCache;
+        return this;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public GenerationBatch build() {
+        if (destinationPath == null && (incremental || pruneStale)) {
+            throw new IllegalStateException("incremental mode and stale file pruning need a destination directory");
+        }
+        return new GenerationBatch(this);
+    }
+
+    /**
+     * A batch of definitions to build and write
+     */
+    public static class GenerationBatch {
+
+        private final Path destinationPath;
+        private final List<DefinitionBuilder> definitionBuilders;
+        private final Executor executor;
+        private final int parallelism;
+        private final boolean incremental;
+        private final boolean pruneStale;
+        private final Path manifestPath;
+        private final OutputSink outputSink;
+        private final GenerationListener listener;
+        private final FormatOptions formatOptions;
+        private final RenderCache renderCache;
+
+        private GenerationBatch(GenerationBatchBuilder builder) {
+            this.destinationPath = builder.destinationPath;
+            this.definitionBuilders = new ArrayList<>(builder.definitionBuilders);
+            this.executor = builder.executor;
+            this.parallelism = builder.parallelism;
+            this.incremental = builder.incremental;
+            this.pruneStale = builder.pruneStale;
+            this.listener = builder.listener;
+            this.formatOptions = builder.formatOptions;
+            this.renderCache = builder.renderCache;
+            this.manifestPath = builder.manifestPath == null && builder.destinationPath != null
+                    ? GenerationManifest.defaultPath(builder.destinationPath)
+                    : builder.manifestPath;
+            this.outputSink = builder.outputSink == null
+                    ? new DirectoryOutputSink(builder.destinationPath, builder.writeMode, builder.atomicWrites)
+                    : builder.outputSink;
+        }
+
+        /**
+         * Builds and writes every definition of the batch. A failure in one definition does not stop the others, it
+         * is reported in its own {@link GenerationResult}.
+         *
+         * @return the result of the batch
+         */
+        public BatchResult run() {
+            LOGGER.debug("running generation batch of {} definitions", definitionBuilders.size());
+            var trackManifest = incremental || pruneStale;
+            var previousManifest = trackManifest ? loadManifest() : GenerationManifest.empty();
+            var runListener = JfrGenerationListener.isEnabled()
+                    ? listener.andThen(JfrGenerationListener.INSTANCE)
+                    : listener;
+            BatchResult batchResult;
+            if (executor != null) {
+                batchResult = runOn(executor, previousManifest, runListener);
+            } else {
+                var pool = new ForkJoinPool(parallelism);
+                try {
+                    batchResult = runOn(pool, previousManifest, runListener);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            if (trackManifest) {
+                var manifest = createManifest(batchResult);
+                if (pruneStale) {
+                    pruneStaleFiles(previousManifest, manifest, batchResult);
+                }
+                saveManifest(manifest);
+            }
+            return batchResult;
+        }
+
+        private void pruneStaleFiles(GenerationManifest previousManifest, GenerationManifest manifest,
+                BatchResult batchResult) {
+            try {
+                batchResult.prunedFiles = Collections.unmodifiableList(
+                        previousManifest.pruneStaleFiles(manifest, destinationPath));
+            } catch (IOException ex) {
+                LOGGER.warn("the stale files of {} can't be deleted", destinationPath, ex);
+            }
+        }
+
+        private GenerationManifest loadManifest() {
+            try {
+                return GenerationManifest.load(manifestPath);
+            } catch (IOException ex) {
+                LOGGER.warn("the manifest {} can't be read, every definition will be generated", manifestPath, ex);
+                return GenerationManifest.empty();
+            }
+        }
+
+        private GenerationManifest createManifest(BatchResult batchResult) {
+            var manifest = GenerationManifest.empty();
+            // failed definitions keep their file, with a fingerprint that never matches
+            batchResult.getResults().stream()
+                    .filter(result -> result.sourceFileName != null)
+                    .forEach(result -> manifest.put(result.sourceFileName,
+                    result.fingerprint == null ? UNKNOWN_FINGERPRINT : result.fingerprint));
+            return manifest;
+        }
+
+        private void saveManifest(GenerationManifest manifest) {
+            try {
+                manifest.save(manifestPath);
+            } catch (IOException ex) {
+                LOGGER.warn("the manifest {} can't be saved", manifestPath, ex);
+            }
+        }
+
+        private BatchResult runOn(Executor runExecutor, GenerationManifest previousManifest,
+                GenerationListener runListener) {
+            var futures = definitionBuilders.stream()
+                    .map(definitionBuilder -> CompletableFuture.supplyAsync(
+                    () -> generate(definitionBuilder, previousManifest, runListener), runExecutor))
+                    .collect(toList());
+            return new BatchResult(futures.stream().map(CompletableFuture::join).collect(toList()));
+        }
+
+        private GenerationResult generate(DefinitionBuilder definitionBuilder, GenerationManifest previousManifest,
+                GenerationListener listener) {
+            if (listener == GenerationListener.NONE) {
+                return doGenerate(definitionBuilder, previousManifest, listener);
+            }
+            var packageDefinition = definitionBuilder.getPackageDefinition();
+            var className = definitionBuilder.getClassName();
+            listener.definitionStarted(packageDefinition, className);
+            var start = System.nanoTime();
+            var result = doGenerate(definitionBuilder, previousManifest, listener);
+            listener.definitionCompleted(packageDefinition, className, System.nanoTime() - start, result.status,
+                    result.error);
+            return result;
+        }
+
+        private GenerationResult doGenerate(DefinitionBuilder definitionBuilder,
+                GenerationManifest previousManifest, GenerationListener listener) {
+            var result = new GenerationResult(definitionBuilder.getPackageDefinition(),
+                    definitionBuilder.getClassName());
+            try {
+                result.sourceFileName = definitionBuilder.getSourceFileName();
+                if (incremental || pruneStale) {
+                    var fingerprint = definitionBuilder.fingerprint(formatOptions);
+                    var filePath = destinationPath.resolve(result.sourceFileName);
+                    if (incremental && fingerprint.equals(previousManifest.get(result.sourceFileName))
+                            && Files.isRegularFile(filePath)) {
+                        result.status = WriteStatus.UP_TO_DATE;
+                        result.path = filePath;
+                        result.fingerprint = fingerprint;
+                        return result;
+                    }
+                    result.fingerprint = fingerprint;
+                }
+                var definition = renderCache == null
+                        ? definitionBuilder.build(formatOptions, listener)
+                        : definitionBuilder.build(formatOptions, listener, renderCache);
+                result.status = write(definition, listener);
+                if (outputSink instanceof DirectoryOutputSink) {
+                    result.path = ((DirectoryOutputSink) outputSink).getFilePath(definition);
+                }
+            } catch (Exception ex) {
+                LOGGER.error("error generating {}.{}", result.packageDefinition, result.className, ex);
+                result.error = ex;
+                result.fingerprint = null;
+            }
+            return result;
+        }
+
+        private WriteStatus write(DefinitionBuilder.Definition definition, GenerationListener listener)
+                throws IOException {
+            if (listener == GenerationListener.NONE) {
+                return outputSink.write(definition);
+            }
+            var packageDefinition = definition.getPackageDefinition();
+            var className = definition.getClassName();
+            listener.phaseStarted(packageDefinition, className, GenerationPhase.WRITE);
+            var start = System.nanoTime();
+            var status = outputSink.write(definition);
+            listener.phaseCompleted(packageDefinition, className, GenerationPhase.WRITE, System.nanoTime() - start,
+                    definition.getLineCount(), definition.getCharCount());
+            return status;
+        }
+
+    }
+
+    /**
+     * Result of a single definition of the batch
+     */
+    public static class GenerationResult {
+
+        private final String packageDefinition;
+        private final String className;
+        private Path path;
+        private WriteStatus status;
+        private Exception error;
+        private String sourceFileName;
+        private Fingerprint fingerprint;
+
+        private GenerationResult(String packageDefinition, String className) {
+            this.packageDefinition = packageDefinition;
+            this.className = className;
+        }
+
+        static GenerationResult failed(String packageDefinition, String className, Exception error) {
+            var result = new GenerationResult(packageDefinition, className);
+            result.error = error;
+            return result;
+        }
+
+        /**
+         *
+         * @return
+         */
+        public String getPackageDefinition() {
+            return packageDefinition;
+        }
+
+        /**
+         *
+         * @return
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Path of the written file, {@code null} if the definition failed or it was not written to a directory
+         *
+         * @return the path of the file
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * Whether the file was written or left untouched, {@code null} if the definition failed
+         *
+         * @return the write status
+         */
+        public WriteStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * The exception that made this definition fail, {@code null} if it succeeded
+         *
+         * @return the exception
+         */
+        public Exception getError() {
+            return error;
+        }
+
+        /**
+         *
+         * @return
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Aggregated result of a batch
+     */
+    public static class BatchResult {
+
+        private final List<GenerationResult> results;
+        private List<Path> prunedFiles = Collections.emptyList();
+
+        private BatchResult(List<GenerationResult> results) {
+            this.results = Collections.unmodifiableList(results);
+        }
+
+        /**
+         * Results of every definition, in the same order they were added to the batch
+         *
+         * @return the results
+         */
+        public List<GenerationResult> getResults() {
+            return results;
+        }
+
+        /**
+         *
+         * @return
+         */
+        public List<GenerationResult> getFailures() {
+            return results.stream().filter(result -> !result.isSuccess()).collect(toList());
+        }
+
+        /**
+         *
+         * @return
+         */
+        public boolean hasFailures() {
+            return results.stream().anyMatch(result -> !result.isSuccess());
+        }
+
+        /**
+         * Number of files that were written
+         *
+         * @return the number of files
+         */
+        public long getWrittenCount() {
+            return countByStatus(WriteStatus.WRITTEN);
+        }
+
+        /**
+         * Number of definitions that were neither built nor written because their inputs did not change
+         *
+         * @return the number of definitions
+         */
+        public long getUpToDateCount() {
+            return countByStatus(WriteStatus.UP_TO_DATE);
+        }
+
+        /**
+         * Number of files that were skipped because their content did not change
+         *
+         * @return the number of files
+         */
+        public long getSkippedCount() {
+            return countByStatus(WriteStatus.UNCHANGED);
+        }
+
+        /**
+         * Stale files deleted by the batch
+         *
+         * @return the deleted files
+         */
+        public List<Path> getPrunedFiles() {
+            return prunedFiles;
+        }
+
+        private long countByStatus(WriteStatus status) {
+            return results.stream().filter(result -> result.status == status).count();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.util.Fingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Fingerprints of the definitions written by a generation run, keyed by the source file name relative to the
+ * destination directory.
+ * <p>
+ * It is stored in a compact binary file: a header with a magic number, the format version and the number of entries,
+ * followed by every entry as the UTF-8 length and bytes of the file name and the two longs of the fingerprint. The
+ * file is read through a memory mapped buffer.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class GenerationManifest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationManifest.class);
+
+    private static final int MAGIC = 0x4A47454D;
+    private static final int VERSION = 1;
+    private static final String MANIFEST_SUFFIX = ".jgencode-manifest";
+
+    private final Map<String, Fingerprint> entries;
+
+    private GenerationManifest(Map<String, Fingerprint> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     *
+     * @return a manifest without entries
+     */
+    public static GenerationManifest empty() {
+        return new GenerationManifest(new HashMap<>());
+    }
+
+    /**
+     * The default location of the manifest: a file next to the destination directory, named like the directory with
+     * the {@code .jgencode-manifest} suffix.
+     *
+     * @param destinationPath the destination directory of the generated files
+     * @return the path of the manifest file
+     */
+    public static Path defaultPath(Path destinationPath) {
+        var directory = destinationPath.toAbsolutePath().normalize();
+        if (directory.getFileName() == null) {
+            return directory.resolve(MANIFEST_SUFFIX);
+        }
+        return directory.resolveSibling(directory.getFileName() + MANIFEST_SUFFIX);
+    }
+
+    /**
+     * Loads a manifest. If the file does not exist an empty manifest is returned.
+     *
+     * @param path the manifest file
+     * @return the manifest
+     * @throws IOException if the file can't be read or it is not a valid manifest
+     */
+    public static GenerationManifest load(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return empty();
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a generation manifest: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported generation manifest version " + version + ": " + path);
+            }
+            int count = buffer.getInt();
+            var entries = new HashMap<String, Fingerprint>(Math.max(16, (int) (count / 0.75f) + 1));
+            var nameBytes = new byte[256];
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                if (length > nameBytes.length) {
+                    nameBytes = new byte[length];
+                }
+                buffer.get(nameBytes, 0, length);
+                var sourceFileName = new String(nameBytes, 0, length, StandardCharsets.UTF_8);
+                entries.put(sourceFileName, new Fingerprint(buffer.getLong(), buffer.getLong()));
+            }
+            LOGGER.debug("loaded {} entries from manifest {}", count, path);
+            return new GenerationManifest(entries);
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Truncated generation manifest: " + path, ex);
+        }
+    }
+
+    /**
+     * Saves the manifest. It is written to a temporary file that replaces the previous one, so a failed run never
+     * leaves a partial manifest.
+     *
+     * @param path the manifest file
+     * @throws IOException if the file can't be written
+     */
+    public void save(Path path) throws IOException {
+        var parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        var temporaryPath = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Fingerprint> entry : new TreeMap<>(entries).entrySet()) {
+                    var nameBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(nameBytes.length);
+                    out.write(nameBytes);
+                    out.writeLong(entry.getValue().getHigh());
+                    out.writeLong(entry.getValue().getLow());
+                }
+            }
+            try {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * Deletes the files of this manifest that are not in the manifest of the current run, together with the package
+     * directories that become empty. Only the files listed in the manifests are checked, the destination directory is
+     * never walked.
+     *
+     * @param currentManifest the manifest of the current run
+     * @param destinationPath the destination directory of the generated files
+     * @return the deleted files
+     * @throws IOException if a file can't be deleted
+     */
+    public List<Path> pruneStaleFiles(GenerationManifest currentManifest, Path destinationPath) throws IOException {
+        var root = destinationPath.toAbsolutePath().normalize();
+        List<Path> deletedFiles = new ArrayList<>();
+        for (String sourceFileName : entries.keySet()) {
+            if (currentManifest.entries.containsKey(sourceFileName)) {
+                continue;
+            }
+            var filePath = root.resolve(sourceFileName).normalize();
+            if (!filePath.startsWith(root) || filePath.equals(root)) {
+                LOGGER.warn("ignoring manifest entry outside of {}: {}", root, sourceFileName);
+                continue;
+            }
+            if (Files.deleteIfExists(filePath)) {
+                LOGGER.debug("deleted stale file {}", filePath);
+                deletedFiles.add(filePath);
+            }
+            deleteEmptyDirectories(filePath.getParent(), root);
+        }
+        return deletedFiles;
+    }
+
+    private static void deleteEmptyDirectories(Path directory, Path root) throws IOException {
+        var current = directory;
+        while (current != null && current.startsWith(root) && !current.equals(root)) {
+            try {
+                if (!Files.deleteIfExists(current)) {
+                    return;
+                }
+            } catch (DirectoryNotEmptyException ex) {
+                return;
+            }
+            current = current.getParent();
+        }
+    }
+
+    /**
+     *
+     * @param sourceFileName the source file name, relative to the destination directory
+     * @return the fingerprint, {@code null} if the file is not in the manifest
+     */
+    public Fingerprint get(String sourceFileName) {
+        return entries.get(sourceFileName);
+    }
+
+    /**
+     *
+     * @param sourceFileName the source file name, relative to the destination directory
+     * @param fingerprint the fingerprint of the definition written to the file
+     */
+    public void put(String sourceFileName, Fingerprint fingerprint) {
+        entries.put(sourceFileName, fingerprint);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public Set<String> getSourceFileNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     *
+     * @return
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,491 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.GenerationBatchBuilder.GenerationResult;
+import com.jgencode.gen.jfr.JfrGenerationListener;
+import com.jgencode.gen.listener.GenerationListener;
+import com.jgencode.gen.output.DirectoryOutputSink;
+import com.jgencode.gen.output.OutputSink;
+import com.jgencode.gen.values.FormatOptions;
+import com.jgencode.gen.values.WriteMode;
+import com.jgencode.gen.values.WriteStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Builder class for a pipeline that renders and writes the definitions of a lazy source, such as an iterator or a
+ * {@link Flow.Publisher}. Only a bounded number of definitions is requested from the source at a time, every
+ * definition is rendered straight into the output sink and nothing is kept once it is written, so the memory used
+ * depends on the concurrency and not on the size of the model.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class GenerationPipelineBuilder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationPipelineBuilder.class);
+
+    private final OutputSink outputSink;
+    private Executor executor;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int maxInFlight;
+    private GenerationListener listener = GenerationListener.NONE;
+    private FormatOptions formatOptions = FormatOptions.DEFAULT;
+
+    private GenerationPipelineBuilder(OutputSink outputSink) {
+        this.outputSink = outputSink;
+    }
+
+    /**
+     * Creates a pipeline builder that writes the .java files under a directory
+     *
+     * @param destinationPath root directory where the .java files will be written
+     * @return a new pipeline builder
+     */
+    public static GenerationPipelineBuilder createBuilder(Path destinationPath) {
+        return new GenerationPipelineBuilder(new DirectoryOutputSink(destinationPath, WriteMode.OVERWRITE));
+    }
+
+    /**
+     * Creates a pipeline builder that writes the definitions to an output sink
+     *
+     * @param outputSink where the definitions are written
+     * @return a new pipeline builder
+     */
+    public static GenerationPipelineBuilder createBuilder(OutputSink outputSink) {
+        return new GenerationPipelineBuilder(Objects.requireNonNull(outputSink, "outputSink"));
+    }
+
+    /**
+     * Executor that renders and writes the definitions. By default every run creates a {@link ForkJoinPool} with
+     * the given parallelism.
+     *
+     * @param executor the executor
+     * @return the same builder object
+     */
+    public GenerationPipelineBuilder executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Number of threads of the pool created when no executor is assigned
+     *
+     * @param parallelism the number of threads
+     * @return the same builder object
+     */
+    public GenerationPipelineBuilder parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Maximum number of definitions requested from the source and not written yet. By default it is twice the
+     * parallelism.
+     *
+     * @param maxInFlight the maximum number of definitions in flight
+     * @return the same builder object
+     */
+    public GenerationPipelineBuilder maxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Listener that receives the start and the completion of every definition. It is called concurrently from the
+     * threads of the pipeline.
+     *
+     * @param listener the listener
+     * @return the same builder object
+     */
+    public GenerationPipelineBuilder listener(GenerationListener listener) {
+        this.listener = listener == null ? GenerationListener.NONE : listener;
+        return this;
+    }
+
+    /**
+     *
+     * @param formatOptions layout of the source code, {@link FormatOptions#DEFAULT} by default
+     * @return the same builder object
+     */
+    public GenerationPipelineBuilder formatOptions(FormatOptions formatOptions) {
+        this.formatOptions = formatOptions == null ? FormatOptions.DEFAULT : formatOptions;
+        return this;
+    }
+
+    /**
+     *
+     * @return the pipeline
+     */
+    public GenerationPipeline build() {
+        return new GenerationPipeline(this);
+    }
+
+    /**
+     * A pipeline that renders and writes definitions as they arrive. It can be run many times.
+     */
+    public static class GenerationPipeline {
+
+        private final OutputSink outputSink;
+        private final Executor executor;
+        private final int parallelism;
+        private final int maxInFlight;
+        private final GenerationListener listener;
+        private final FormatOptions formatOptions;
+
+        private GenerationPipeline(GenerationPipelineBuilder builder) {
+            this.outputSink = builder.outputSink;
+            this.executor = builder.executor;
+            this.parallelism = builder.parallelism;
+            this.maxInFlight = builder.maxInFlight > 0 ? builder.maxInFlight : builder.parallelism * 2;
+            this.listener = builder.listener;
+            this.formatOptions = builder.formatOptions;
+        }
+
+        /**
+         * Renders and writes the definitions of an iterator, taking them only when there is room for them. It blocks
+         * until every definition is written. A failure in one definition does not stop the others.
+         *
+         * @param definitionBuilders the definition builders
+         * @return the result of the run
+         */
+        public PipelineResult run(Iterator<? extends DefinitionBuilder> definitionBuilders) {
+            try {
+                return subscribe(new IteratorPublisher(definitionBuilders)).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                if (ex.getCause() instanceof Error) {
+                    throw (Error) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+
+        /**
+         * Renders and writes the definitions of a stream. The stream is consumed lazily and closed at the end.
+         *
+         * @param definitionBuilders the definition builders
+         * @return the result of the run
+         */
+        public PipelineResult run(Stream<? extends DefinitionBuilder> definitionBuilders) {
+            try (definitionBuilders) {
+                return run(definitionBuilders.iterator());
+            }
+        }
+
+        /**
+         * Subscribes the pipeline to a publisher of definition builders. The pipeline never requests more than the
+         * maximum in flight, and it requests one more every time a definition is written.
+         *
+         * @param publisher the publisher
+         * @return the result, completed when the publisher completes and every definition is written, or
+         * exceptionally if the publisher fails or the processing of a definition throws an {@link Error}
+         */
+        public CompletableFuture<PipelineResult> subscribe(Flow.Publisher<? extends DefinitionBuilder> publisher) {
+            var subscriber = new PipelineSubscriber();
+            publisher.subscribe(subscriber);
+            return subscriber.result;
+        }
+
+        private final class PipelineSubscriber implements Flow.Subscriber<DefinitionBuilder> {
+
+            private final CompletableFuture<PipelineResult> result = new CompletableFuture<>();
+            private final PipelineResult pipelineResult = new PipelineResult();
+            private final GenerationListener runListener = JfrGenerationListener.isEnabled()
+                    ? listener.andThen(JfrGenerationListener.INSTANCE)
+                    : listener;
+            private final AtomicInteger inFlight = new AtomicInteger();
+            private final AtomicBoolean finished = new AtomicBoolean();
+            private final AtomicReference<Throwable> runError = new AtomicReference<>();
+            private volatile boolean sourceDone;
+            private volatile Throwable sourceError;
+            private Executor runExecutor;
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                if (this.subscription != null) {
+                    subscription.cancel();
+                    return;
+                }
+                this.subscription = subscription;
+                runExecutor = executor != null ? executor : new ForkJoinPool(parallelism);
+                LOGGER.debug("running generation pipeline with {} definitions in flight", maxInFlight);
+                subscription.request(maxInFlight);
+            }
+
+            @Override
+            public void onNext(DefinitionBuilder definitionBuilder) {
+                inFlight.incrementAndGet();
+                try {
+                    runExecutor.execute(() -> process(definitionBuilder));
+                } catch (RejectedExecutionException ex) {
+                    LOGGER.error("the executor rejected {}.{}", definitionBuilder.getPackageDefinition(),
+                            definitionBuilder.getClassName(), ex);
+                    pipelineResult.addFailure(GenerationResult.failed(definitionBuilder.getPackageDefinition(),
+                            definitionBuilder.getClassName(), ex));
+                    completed();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                sourceError = throwable;
+                sourceDone = true;
+                finishIfIdle();
+            }
+
+            @Override
+            public void onComplete() {
+                sourceDone = true;
+                finishIfIdle();
+            }
+
+            private void process(DefinitionBuilder definitionBuilder) {
+                try {
+                    render(definitionBuilder);
+                } catch (Throwable ex) {
+                    // an error such as OutOfMemoryError, or a failure of the listener, fails the whole run
+                    LOGGER.error("generation pipeline failed on {}.{}", definitionBuilder.getPackageDefinition(),
+                            definitionBuilder.getClassName(), ex);
+                    runError.compareAndSet(null, ex);
+                } finally {
+                    completed();
+                }
+            }
+
+            private void render(DefinitionBuilder definitionBuilder) {
+                var packageDefinition = definitionBuilder.getPackageDefinition();
+                var className = definitionBuilder.getClassName();
+                var start = System.nanoTime();
+                runListener.definitionStarted(packageDefinition, className);
+                WriteStatus status = null;
+                Exception error = null;
+                try {
+                    status = outputSink.write(definitionBuilder.buildStreaming(formatOptions));
+                    pipelineResult.add(status);
+                } catch (Exception ex) {
+                    LOGGER.error("error generating {}.{}", packageDefinition, className, ex);
+                    error = ex;
+                    pipelineResult.addFailure(GenerationResult.failed(packageDefinition, className, ex));
+                }
+                runListener.definitionCompleted(packageDefinition, className, System.nanoTime() - start, status,
+                        error);
+            }
+
+            private void completed() {
+                if (inFlight.decrementAndGet() == 0 && sourceDone) {
+                    finishIfIdle();
+                } else if (!sourceDone) {
+                    subscription.request(1);
+                }
+            }
+
+            private void finishIfIdle() {
+                if (inFlight.get() != 0 || !finished.compareAndSet(false, true)) {
+                    return;
+                }
+                if (executor == null && runExecutor instanceof ExecutorService) {
+                    ((ExecutorService) runExecutor).shutdown();
+                }
+                if (runError.get() != null) {
+                    result.completeExceptionally(runError.get());
+                } else if (sourceError != null) {
+                    result.completeExceptionally(sourceError);
+                } else {
+                    result.complete(pipelineResult);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes the elements of an iterator, taking each one only when it is requested
+     */
+    private static final class IteratorPublisher implements Flow.Publisher<DefinitionBuilder> {
+
+        private final Iterator<? extends DefinitionBuilder> iterator;
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+
+        private IteratorPublisher(Iterator<? extends DefinitionBuilder> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DefinitionBuilder> subscriber) {
+            if (!subscribed.compareAndSet(false, true)) {
+                throw new IllegalStateException("an iterator can only be published once");
+            }
+            subscriber.onSubscribe(new IteratorSubscription(iterator, subscriber));
+        }
+    }
+
+    private static final class IteratorSubscription implements Flow.Subscription {
+
+        private final Iterator<? extends DefinitionBuilder> iterator;
+        private final Flow.Subscriber<? super DefinitionBuilder> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        private IteratorSubscription(Iterator<? extends DefinitionBuilder> iterator,
+                Flow.Subscriber<? super DefinitionBuilder> subscriber) {
+            this.iterator = iterator;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("non-positive request " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> Long.MAX_VALUE - current < added ? Long.MAX_VALUE
+                    : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Emits while there is demand. Only one thread emits at a time; a request made while another thread emits,
+         * even from inside {@code onNext}, is served by that thread.
+         */
+        private void drain() {
+            if (pending.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!cancelled && demand.get() > 0) {
+                    DefinitionBuilder next;
+                    try {
+                        if (!iterator.hasNext()) {
+                            cancelled = true;
+                            subscriber.onComplete();
+                            return;
+                        }
+                        next = iterator.next();
+                    } catch (RuntimeException ex) {
+                        cancelled = true;
+                        subscriber.onError(ex);
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(next);
+                }
+            } while (pending.decrementAndGet() != 0);
+        }
+    }
+
+    /**
+     * Aggregated result of a pipeline run. It only keeps the counters and the failures, never the definitions.
+     */
+    public static class PipelineResult {
+
+        private final LongAdder written = new LongAdder();
+        private final LongAdder unchanged = new LongAdder();
+        private final List<GenerationResult> failures = Collections.synchronizedList(new ArrayList<>());
+
+        private PipelineResult() {
+        }
+
+        private void add(WriteStatus status) {
+            if (status == WriteStatus.UNCHANGED || status == WriteStatus.UP_TO_DATE) {
+                unchanged.increment();
+            } else {
+                written.increment();
+            }
+        }
+
+        private void addFailure(GenerationResult failure) {
+            failures.add(failure);
+        }
+
+        /**
+         *
+         * @return number of definitions written
+         */
+        public long getWrittenCount() {
+            return written.sum();
+        }
+
+        /**
+         *
+         * @return number of definitions whose output was left untouched
+         */
+        public long getUnchangedCount() {
+            return unchanged.sum();
+        }
+
+        /**
+         *
+         * @return number of definitions that failed
+         */
+        public long getFailureCount() {
+            return failures.size();
+        }
+
+        /**
+         *
+         * @return the definitions that failed, with their error
+         */
+        public List<GenerationResult> getFailures() {
+            synchronized (failures) {
+                return List.copyOf(failures);
+            }
+        }
+
+        /**
+         *
+         * @return {@code true} if no definition failed
+         */
+        public boolean isSuccess() {
+            return failures.isEmpty();
+        }
+    }
+}
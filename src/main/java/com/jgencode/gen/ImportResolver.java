@@ -0,0 +1,255 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.type.AnnotationType;
+import com.jgencode.gen.type.ClassType;
+import com.jgencode.gen.type.JavaType;
+import com.jgencode.gen.type.TypeNamer;
+import com.jgencode.gen.type.TypeRegistry;
+import com.jgencode.gen.util.ClassUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.jgencode.gen.util.Constants.LESS_THAN;
+import static com.jgencode.gen.util.Constants.PERIOD;
+
+/**
+ * Collects, in a single pass over a definition, the classes it refers to and decides which ones are imported.
+ * <p>
+ * The first class found with a simple name takes that name. Any other class with the same simple name is not
+ * imported and is named by its fully qualified name. The defined class itself always takes its own simple name. The
+ * classes of {@code java.lang}, of the same package or without a package take their simple name but are not imported.
+ * A class name that contains periods is taken as a fully qualified name.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class ImportResolver implements TypeNamer {
+
+    private static final String JAVA_LANG = "java.lang";
+
+    private final String packageDefinition;
+    private final Map<String, String> namesBySimpleName = new HashMap<>();
+    private final Set<String> imports = new TreeSet<>();
+    private boolean conflicts;
+
+    /**
+     *
+     * @param packageDefinition package of the definition
+     * @param className name of the definition
+     */
+    public ImportResolver(String packageDefinition, String className) {
+        this.packageDefinition = packageDefinition;
+        namesBySimpleName.put(className, packageDefinition + PERIOD + className);
+    }
+
+    /**
+     * Adds a class and its generics. Native types are ignored.
+     *
+     * @param javaType the type, it can be {@code null}
+     * @return the same resolver
+     */
+    public ImportResolver add(JavaType javaType) {
+        if (javaType instanceof ClassType) {
+            add((ClassType) javaType);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a class and its generics
+     *
+     * @param classType the class, it can be {@code null}
+     * @return the same resolver
+     */
+    public ImportResolver add(ClassType classType) {
+        if (classType == null) {
+            return this;
+        }
+        addQualifiedName(getQualifiedName(classType));
+        if (classType.getGenerics() != null) {
+            for (Object generic : classType.getGenerics().values()) {
+                if (generic instanceof ClassType) {
+                    add((ClassType) generic);
+                } else {
+                    var packageName = TypeRegistry.getDefault().findWellKnownPackage((String) generic);
+                    if (packageName != null) {
+                        addQualifiedName(packageName + PERIOD + generic);
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the class of an annotation and the classes used as values of its attributes
+     *
+     * @param annotationType the annotation
+     * @return the same resolver
+     */
+    public ImportResolver add(AnnotationType annotationType) {
+        add(annotationType.getClassType());
+        for (Object value : annotationType.getAttributes().values()) {
+            if (value instanceof ClassType) {
+                add((ClassType) value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a class by its fully qualified name
+     *
+     * @param qualifiedName the fully qualified name
+     * @return the same resolver
+     */
+    public ImportResolver addQualifiedName(String qualifiedName) {
+        var simpleName = StringUtils.substringAfterLast(qualifiedName, PERIOD);
+        if (simpleName.isEmpty()) {
+            namesBySimpleName.putIfAbsent(qualifiedName, qualifiedName);
+            return this;
+        }
+        var owner = namesBySimpleName.putIfAbsent(simpleName, qualifiedName);
+        if (owner == null) {
+            if (isImported(qualifiedName, simpleName)) {
+                imports.add(qualifiedName);
+            }
+        } else if (!owner.equals(qualifiedName)) {
+            conflicts = true;
+        }
+        return this;
+    }
+
+    /**
+     * Adds the type and annotations of a field
+     *
+     * @param field the field
+     * @return the same resolver
+     */
+    public ImportResolver addField(FieldDefinitionBuilder.FieldDefinition field) {
+        field.getAnnotationType().forEach(this::add);
+        return add(field.getClassType());
+    }
+
+    /**
+     * Adds the types and annotations of the constructors, their parameters and their bodies
+     *
+     * @param constructors the constructors, it can be {@code null}
+     * @return the same resolver
+     */
+    public ImportResolver addConstructors(Collection<ConstructorDefinitionBuilder.ConstructorDefinition> constructors) {
+        if (constructors != null) {
+            for (ConstructorDefinitionBuilder.ConstructorDefinition constructor : constructors) {
+                constructor.getAnnotationTypes().forEach(this::add);
+                addParameters(constructor.getParameters());
+                constructor.getCodeBlock().getTypes().forEach(this::add);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the return types and annotations of the methods, the types and annotations of their parameters and the
+     * types of their bodies
+     *
+     * @param methods the methods, it can be {@code null}
+     * @return the same resolver
+     */
+    public ImportResolver addMethods(Collection<MethodDefinitionBuilder.MethodDefinition> methods) {
+        if (methods != null) {
+            for (MethodDefinitionBuilder.MethodDefinition method : methods) {
+                method.getAnnotationTypes().forEach(this::add);
+                add(method.getReturnType());
+                addParameters(method.getParameters());
+                method.getCodeBlock().getTypes().forEach(this::add);
+            }
+        }
+        return this;
+    }
+
+    private void addParameters(Collection<ParameterDefinition> parameters) {
+        for (ParameterDefinition parameter : parameters) {
+            parameter.getAnnotationTypes().forEach(this::add);
+            add(parameter.getParameterType());
+        }
+    }
+
+    /**
+     * The simple name if the class took it, otherwise the fully qualified name
+     *
+     * @param classType the class
+     * @return the name of the class in the source code
+     */
+    @Override
+    public String name(ClassType classType) {
+        var qualifiedName = getQualifiedName(classType);
+        var simpleName = StringUtils.substringAfterLast(qualifiedName, PERIOD);
+        if (simpleName.isEmpty() || qualifiedName.equals(namesBySimpleName.get(simpleName))) {
+            return simpleName.isEmpty() ? qualifiedName : simpleName;
+        }
+        return qualifiedName;
+    }
+
+    /**
+     * Whether two different classes have the same simple name, so some class is named by its fully qualified name
+     *
+     * @return {@code true} if there are conflicts
+     */
+    public boolean hasConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * The namer for the members of the definition. Without conflicts it is {@link TypeNamer#SIMPLE_NAME}, so the
+     * source lines that the members already have are used.
+     *
+     * @return the namer
+     */
+    public TypeNamer getMemberNamer() {
+        return conflicts ? this : TypeNamer.SIMPLE_NAME;
+    }
+
+    /**
+     * Fully qualified names of the classes to import, sorted
+     *
+     * @return the classes to import
+     */
+    public Set<String> getImports() {
+        return Collections.unmodifiableSet(imports);
+    }
+
+    private boolean isImported(String qualifiedName, String simpleName) {
+        var packageName = StringUtils.substringBeforeLast(qualifiedName, PERIOD);
+        return !packageName.equals(JAVA_LANG)
+                && !packageName.equals(packageDefinition)
+                && ClassUtil.isNotNative(simpleName);
+    }
+
+    private static String getQualifiedName(ClassType classType) {
+        var className = StringUtils.trim(StringUtils.substringBefore(classType.getClassName(), LESS_THAN));
+        if (StringUtils.contains(className, PERIOD) || StringUtils.isBlank(classType.getPackageName())) {
+            return className;
+        }
+        return classType.getPackageName() + PERIOD + className;
+    }
+}
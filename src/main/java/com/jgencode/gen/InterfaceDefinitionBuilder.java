@@ -16,24 +16,22 @@
 package com.jgencode.gen;
 
 import com.jgencode.gen.type.ClassType;
-import com.jgencode.gen.type.ClassTypeBuilder;
 import static com.jgencode.gen.util.Constants.COMMA;
 import static com.jgencode.gen.util.Constants.COMMA_SPACE;
-import static com.jgencode.gen.util.Constants.GENERAL_CLASSES;
 import static com.jgencode.gen.util.Constants.LESS_THAN;
 import static com.jgencode.gen.util.Constants.MORE_THAN;
-import static com.jgencode.gen.util.Constants.PERIOD;
+import com.jgencode.gen.util.FingerprintBuilder;
 import com.jgencode.gen.util.MethodUtil;
+import com.jgencode.gen.values.GenerationPhase;
 import com.jgencode.gen.values.Modifier;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.toList;
-
 /**
  * Interface definition constructor class
  *
@@ -56,90 +54,62 @@ public class InterfaceDefinitionBuilder extends DefinitionBuilder implements Def
      * @return
      */
     public DefinitionBuilder addInterfaceExtend(ClassType interfaceType) {
+        invalidate();
         interfacesExtends.add(interfaceType);
         return this;
     }
 
     @Override
-    protected void importClasses() {
+    protected void collectTypes(ImportResolver resolver) {
         LOGGER.debug("import classes from interface definition {}", className);
-
-        //from extended
-        interfacesExtends.forEach(interfaceExtend -> {
-            classesToImport.add(interfaceExtend.getFullClassName());
-            Optional.ofNullable(interfaceExtend.getGenerics()).ifPresent(generics -> {
-                classesToImport.addAll(
-                        generics.values().stream().filter(value -> value instanceof ClassType)
-                                .map(ClassType.class::cast)
-                                .map(ClassType::getFullClassName)
-                                .collect(toList()));
-            });
-        });
-
-        super.importClasses();
-        LOGGER.debug("Classes to import: {}", classesToImport);
+        interfacesExtends.forEach(resolver::add);
+        super.collectTypes(resolver);
+        resolver.addMethods(methods);
     }
 
     @Override
-    protected void doBuildCode() {
-        codeLines = new ArrayList<>();
-        codeLines.add(getPackageDeclaration());
+    protected void writeCode(SourceWriter writer) throws IOException {
+        writer.startPhase(GenerationPhase.IMPORT_RESOLUTION);
+        var resolver = resolveImports();
+        var namer = resolver.getMemberNamer();
 
+        writer.startPhase(GenerationPhase.DECLARATION);
         var classDeclaration = new StringBuilder();
-        annotationTypes.forEach(annotationType -> {
-            for (String s : annotationType.createSourceLines()) {
-                classDeclaration.append(s).append(System.lineSeparator());
-            }
-        });
         classDeclaration.append(Modifier.currentAccessModifier(modifiers));
         classDeclaration.append(StringUtils.SPACE).append("interface").append(StringUtils.SPACE);
         classDeclaration.append(className);
-        addInterfacesExtendsCode(classDeclaration);
-        classDeclaration.append('{');
+        addInterfacesExtendsCode(classDeclaration, resolver);
 
-        MethodUtil.importClassesFromMethods(methods, classesToImport);
+        writer.line(getPackageDeclaration()).newLine();
+        writeImports(writer, resolver);
+        writeAnnotations(writer, namer);
+        writer.openBrace(classDeclaration);
 
-        importClasses();
-        codeLines.add(classDeclaration.toString());
-        codeLines.addAll(createFields());
+        writer.startPhase(GenerationPhase.MEMBERS);
+        writer.indent();
+        writeFields(writer, namer);
 
         if (methods != null) {
-            methods.forEach(method -> codeLines.addAll(method.getSourceLines().stream().map(
-                    line -> String.format("%s%s", getIndentation(1), line)).collect(toList()))
-            );
+            for (MethodDefinitionBuilder.MethodDefinition method : methods) {
+                method.getSharedSegment().write(writer, namer, className, methodWriter -> methodWriter.lines(
+                        method.getSourceLines(namer, methodWriter.getOptions())));
+            }
         }
+        writer.unindent();
 
-        codeLines.add("}");
+        writer.line("}");
+        writer.endPhase();
     }
 
-    private void addInterfacesExtendsCode(StringBuilder classDeclaration) {
+    private void addInterfacesExtendsCode(StringBuilder classDeclaration, ImportResolver resolver) {
         var interfacesExtendsCode = interfacesExtends.stream().map(interfaceExtend -> {
-            var declaration = new StringBuilder(interfaceExtend.getClassName());
+            var declaration = new StringBuilder(resolver.name(interfaceExtend));
             if (interfaceExtend.getGenerics() != null) {
                 declaration.append(LESS_THAN);
                 var params
                         = interfaceExtend.getGenerics().values().stream().map(genericType -> {
                             if (genericType instanceof ClassType genericTypeParam) {
-                                String className = genericTypeParam.getClassName();
-                                String packageName = null;
-                                if (StringUtils.contains(className, PERIOD)) {
-                                    className = StringUtils.substringAfterLast(genericTypeParam.getClassName(), PERIOD);
-                                    packageName = StringUtils.substringBeforeLast(genericTypeParam.getClassName(),
-                                            PERIOD);
-                                } else {
-                                    className = genericTypeParam.getFullClassName();
-                                }
-                                var typeParam = ClassTypeBuilder.newBuilder()
-                                        .className(className)
-                                        .packageName(packageName)
-                                        .build();
-
-                                var classToImport = typeParam.getFullClassName();
-                                classesToImport.add(classToImport);
-                                return typeParam.getClassName();
-                            }
-                            if (GENERAL_CLASSES.containsKey((String) genericType)) {
-                                classesToImport.add(GENERAL_CLASSES.get((String) genericType));
+                                return resolver.nameWithGenerics(genericTypeParam);
                             }
                             return (String) genericType;
 
@@ -154,9 +124,18 @@ public class InterfaceDefinitionBuilder extends DefinitionBuilder implements Def
         }
     }
 
+    @Override
+    protected void addToFingerprint(FingerprintBuilder fingerprintBuilder) {
+        super.addToFingerprint(fingerprintBuilder);
+        fingerprintBuilder.add(interfacesExtends.size());
+        interfacesExtends.forEach(fingerprintBuilder::add);
+        MethodUtil.addMethodsToFingerprint(methods, fingerprintBuilder);
+    }
+
     @Override
     public DefinitionBuilderWithMethods addMethods(
             Collection<MethodDefinitionBuilder.MethodDefinition> methodDefinitions) {
+        invalidate();
         Optional.ofNullable(this.methods).orElseGet(() -> this.methods = new LinkedHashSet<>()).
                 addAll(methodDefinitions);
         return this;
@@ -169,6 +148,7 @@ public class InterfaceDefinitionBuilder extends DefinitionBuilder implements Def
      */
     @Override
     public DefinitionBuilderWithMethods addMethod(MethodDefinitionBuilder.MethodDefinition methodDefinition) {
+        invalidate();
         Optional.ofNullable(this.methods).orElseGet(() -> this.methods = new LinkedHashSet<>()).add(methodDefinition);
         return this;
     }
@@ -16,9 +16,11 @@
 package com.jgencode.gen;
 
 import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.output.DirectoryOutputSink;
+import com.jgencode.gen.values.WriteMode;
+import com.jgencode.gen.values.WriteStatus;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -30,23 +32,35 @@ public class JavaFileBuilder {
 
     private final Definition definition;
     private final Path destinationPath;
+    private WriteMode writeMode = WriteMode.OVERWRITE;
 
     private JavaFileBuilder(Definition definition, Path destinationPath) {
         this.definition = definition;
         this.destinationPath = destinationPath;
     }
 
+    /**
+     * Defines how the file is written when it already exists. By default it is always overwritten.
+     *
+     * @param writeMode the write mode
+     * @return the same builder object
+     */
+    public JavaFileBuilder writeMode(WriteMode writeMode) {
+        this.writeMode = writeMode;
+        return this;
+    }
+
     /**
      * Class about Java File
      */
     public static class JavaFile {
 
         private final Definition definition;
-        private final Path destinationPath;
+        private final DirectoryOutputSink outputSink;
 
-        private JavaFile(Definition definition, Path destinationPath) {
+        private JavaFile(Definition definition, DirectoryOutputSink outputSink) {
             this.definition = definition;
-            this.destinationPath = destinationPath;
+            this.outputSink = outputSink;
         }
 
         /**
@@ -55,11 +69,26 @@ public class JavaFileBuilder {
          * @throws java.io.IOException
          */
         public Path writeFile() throws IOException {
-            Path javaFilePath = destinationPath.resolve(definition.getPackagePath())
-                    .resolve(Path.of(String.format(
-                            "%s.java", definition.getClassName())));
-            Files.createDirectories(javaFilePath.getParent());
-            return Files.write(javaFilePath, definition.getCodeLines());
+            write();
+            return getFilePath();
+        }
+
+        /**
+         * Writes the file according to the write mode
+         *
+         * @return {@link WriteStatus#UNCHANGED} if the file already had the same content and was not touched
+         * @throws IOException if the file can't be read or written
+         */
+        public WriteStatus write() throws IOException {
+            return outputSink.write(definition);
+        }
+
+        /**
+         *
+         * @return
+         */
+        public Path getFilePath() {
+            return outputSink.getFilePath(definition);
         }
 
     }
@@ -79,6 +108,6 @@ public class JavaFileBuilder {
      * @return
      */
     public JavaFile build() {
-        return new JavaFile(definition, destinationPath);
+        return new JavaFile(definition, new DirectoryOutputSink(destinationPath, writeMode));
     }
 }
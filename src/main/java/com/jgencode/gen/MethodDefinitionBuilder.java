@@ -17,6 +17,8 @@ package com.jgencode.gen;
 
 import com.jgencode.gen.type.AnnotationType;
 import com.jgencode.gen.type.JavaType;
+import com.jgencode.gen.type.TypeNamer;
+import com.jgencode.gen.values.FormatOptions;
 import com.jgencode.gen.values.Modifier;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -31,10 +33,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import static com.jgencode.gen.DefinitionBuilder.getIndentation;
 import static com.jgencode.gen.util.Constants.CLOSE_BRACE;
 import static com.jgencode.gen.util.Constants.COMMA;
-import static com.jgencode.gen.util.Constants.OPEN_BRACE;
 import static com.jgencode.gen.util.Constants.SEMI_COLON;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.SPACE;
@@ -57,6 +57,8 @@ public class MethodDefinitionBuilder {
 
     private String body;
 
+    private CodeBlock codeBlock;
+
     private boolean isAbstract;
 
     private MethodDefinitionBuilder() {
@@ -89,6 +91,19 @@ public class MethodDefinitionBuilder {
      */
     public MethodDefinitionBuilder body(String body) {
         this.body = body;
+        this.codeBlock = null;
+        return this;
+    }
+
+    /**
+     * Defines the body of the method with a code block, whose types are imported by the definitions
+     *
+     * @param codeBlock the body
+     * @return the same builder object
+     */
+    public MethodDefinitionBuilder body(CodeBlock codeBlock) {
+        this.body = null;
+        this.codeBlock = codeBlock;
         return this;
     }
 
@@ -154,65 +169,14 @@ public class MethodDefinitionBuilder {
         methodDefinition.modifiers = modifiers;
         methodDefinition.parameters = parameters;
         methodDefinition.body = body;
+        methodDefinition.codeBlock = codeBlock != null ? codeBlock : CodeBlock.ofText(body);
         methodDefinition.annotationTypes = annotationTypes;
-        methodDefinition.sourceLines = createSourceLines();
+        methodDefinition.isAbstract = isAbstract;
+        methodDefinition.sourceLines = methodDefinition.createSourceLines(TypeNamer.SIMPLE_NAME, FormatOptions.DEFAULT);
 
         return methodDefinition;
     }
 
-    private List<String> createSourceLines() {
-        List<String> lines = new ArrayList<>();
-
-        annotationTypes.forEach(annotationType -> lines.addAll(annotationType.createSourceLines()));
-
-        StringBuilder sourceString = new StringBuilder();
-        sourceString.append(Modifier.currentMethodAccessModifier(modifiers));
-        if (sourceString.length() > 0) {
-            sourceString.append(SPACE);
-        }
-        Optional.ofNullable(returnType).ifPresentOrElse(type -> sourceString.append(type.getFullName()),
-                () -> sourceString.append("void"));
-
-        sourceString.append(SPACE).append(name);
-        sourceString.append("(");
-
-        insertParameters(sourceString);
-
-        sourceString.append(")");
-        if (isAbstract) {
-            sourceString.append(SEMI_COLON);
-        } else {
-            sourceString.append(OPEN_BRACE).append(System.lineSeparator());
-            if (StringUtils.isNotBlank(body)) {
-                String[] newBody = StringUtils.split(body, System.lineSeparator());
-                for (String newLine : newBody) {
-                    sourceString.append(String.format("%s%s%n", getIndentation(1), newLine));
-                }
-            }
-            sourceString.append(CLOSE_BRACE).append(System.lineSeparator()).append(System.lineSeparator());
-        }
-
-        lines.addAll(sourceString.toString().lines().collect(Collectors.toList()));
-
-        return lines;
-    }
-
-    private void insertParameters(StringBuilder sourceString) {
-        if (parameters.isEmpty()) {
-            return;
-        }
-        var paramsToInsert = parameters.stream()
-                .filter(parameterDefinition -> Objects.nonNull(parameterDefinition.parameterName))
-                .map(parameter -> String.format("%s %s %s",
-                parameter.getAnnotationSource(),
-                parameter.getParameterType() == null ? EMPTY : parameter.getParameterType().getFullName(),
-                parameter.getParameterName()
-        )).collect(Collectors.joining(COMMA));
-        if (StringUtils.isNotBlank(paramsToInsert)) {
-            sourceString.append(paramsToInsert);
-        }
-    }
-
     /**
      *
      * @param annotationType
@@ -235,6 +199,9 @@ public class MethodDefinitionBuilder {
         private Set<ParameterDefinition> parameters;
         private List<String> sourceLines;
         private String body;
+        private CodeBlock codeBlock;
+        private boolean isAbstract;
+        private final SharedSegment sharedSegment = new SharedSegment(false);
 
         private MethodDefinition() {
 
@@ -276,6 +243,10 @@ public class MethodDefinitionBuilder {
             return sourceLines;
         }
 
+        SharedSegment getSharedSegment() {
+            return sharedSegment;
+        }
+
         /**
          *
          * @return
@@ -284,6 +255,16 @@ public class MethodDefinitionBuilder {
             return body;
         }
 
+        /**
+         * The body of the method. A body given as text is split into the lines of a code block when the method is
+         * built.
+         *
+         * @return the code block of the body, empty if the method has no body
+         */
+        public CodeBlock getCodeBlock() {
+            return codeBlock;
+        }
+
         /**
          *
          * @return
@@ -291,5 +272,79 @@ public class MethodDefinitionBuilder {
         public String getName() {
             return name;
         }
+
+        /**
+         *
+         * @return
+         */
+        public boolean isAbstract() {
+            return isAbstract;
+        }
+
+        /**
+         *
+         * @param namer how the classes of the method are named
+         * @return the source lines of the method
+         */
+        public List<String> getSourceLines(TypeNamer namer) {
+            return getSourceLines(namer, FormatOptions.DEFAULT);
+        }
+
+        /**
+         *
+         * @param namer how the classes are named
+         * @param options the layout of the source code
+         * @return the source lines
+         */
+        public List<String> getSourceLines(TypeNamer namer, FormatOptions options) {
+            return namer == TypeNamer.SIMPLE_NAME && options == FormatOptions.DEFAULT ? sourceLines
+                    : createSourceLines(namer, options);
+        }
+
+        private List<String> createSourceLines(TypeNamer namer, FormatOptions options) {
+            List<String> lines = new ArrayList<>();
+
+            annotationTypes.forEach(annotationType -> lines.addAll(annotationType.createSourceLines(namer, options)));
+
+            StringBuilder sourceString = new StringBuilder();
+            sourceString.append(Modifier.currentMethodAccessModifier(modifiers));
+            if (sourceString.length() > 0) {
+                sourceString.append(SPACE);
+            }
+            Optional.ofNullable(returnType).ifPresentOrElse(type -> sourceString.append(namer.typeName(type)),
+                    () -> sourceString.append("void"));
+
+            sourceString.append(SPACE).append(name);
+            sourceString.append("(");
+
+            insertParameters(sourceString, namer, options);
+
+            sourceString.append(")");
+            if (isAbstract) {
+                lines.add(sourceString.append(SEMI_COLON).toString());
+            } else {
+                options.addOpenBrace(lines, sourceString.toString());
+                codeBlock.addSourceLines(lines, namer, options, 1);
+                lines.add(CLOSE_BRACE);
+                options.addBlankLines(lines);
+            }
+
+            return lines;
+        }
+
+        private void insertParameters(StringBuilder sourceString, TypeNamer namer, FormatOptions options) {
+            if (parameters.isEmpty()) {
+                return;
+            }
+            var paramsToInsert = parameters.stream()
+                    .filter(parameterDefinition -> Objects.nonNull(parameterDefinition.parameterName))
+                    .map(parameter -> parameter.getAnnotationSource(namer, options) + SPACE
+                    + (parameter.getParameterType() == null ? EMPTY : namer.typeName(parameter.getParameterType()))
+                    + SPACE + parameter.getParameterName())
+                    .collect(Collectors.joining(COMMA));
+            if (StringUtils.isNotBlank(paramsToInsert)) {
+                sourceString.append(paramsToInsert);
+            }
+        }
     }
 }
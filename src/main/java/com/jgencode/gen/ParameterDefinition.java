@@ -17,6 +17,8 @@ package com.jgencode.gen;
 
 import com.jgencode.gen.type.AnnotationType;
 import com.jgencode.gen.type.JavaType;
+import com.jgencode.gen.type.TypeNamer;
+import com.jgencode.gen.values.FormatOptions;
 
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -76,9 +78,28 @@ public class ParameterDefinition {
      * @return
      */
     public String getAnnotationSource() {
+        return getAnnotationSource(TypeNamer.SIMPLE_NAME);
+    }
+
+    /**
+     *
+     * @param namer how the classes of the annotations are named
+     * @return the source of the annotations of the parameter
+     */
+    public String getAnnotationSource(TypeNamer namer) {
+        return getAnnotationSource(namer, FormatOptions.DEFAULT);
+    }
+
+    /**
+     *
+     * @param namer how the classes of the annotations are named
+     * @param options the layout of the source code
+     * @return the source of the annotations of the parameter
+     */
+    public String getAnnotationSource(TypeNamer namer, FormatOptions options) {
         StringBuilder source = new StringBuilder();
         annotationTypes.forEach(annotationType -> source.append(String.join(SPACE,
-                annotationType.createSourceLines())));
+                annotationType.createSourceLines(namer, options))));
         return source.toString();
     }
 }
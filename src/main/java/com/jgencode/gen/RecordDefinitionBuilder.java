@@ -15,8 +15,9 @@
  */
 package com.jgencode.gen;
 
+import com.jgencode.gen.values.GenerationPhase;
 import com.jgencode.gen.values.Modifier;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.stream.Collectors;
 
 import static com.jgencode.gen.util.Constants.COMMA_SPACE;
@@ -39,23 +40,26 @@ public class RecordDefinitionBuilder extends DefinitionBuilder {
     }
 
     @Override
-    protected void doBuildCode() {
-        codeLines = new ArrayList<>();
-        codeLines.add(getPackageDeclaration());
-        importClasses();
-        codeLines.add(EMPTY);
+    protected void writeCode(SourceWriter writer) throws IOException {
+        writer.startPhase(GenerationPhase.IMPORT_RESOLUTION);
+        var resolver = resolveImports();
+        var namer = resolver.getMemberNamer();
+        writer.startPhase(GenerationPhase.DECLARATION);
+        writer.line(getPackageDeclaration()).newLine();
+        writeImports(writer, resolver);
+        writer.line(EMPTY);
         var recordDeclaration = new StringBuilder(Modifier.currentAccessModifier(modifiers));
         recordDeclaration.append(SPACE).append("record ").append(className).append('(');
         if (fields != null) {
             recordDeclaration.append(
-                    fields.stream().map(field -> field.getFieldType() + SPACE + field.getFieldName()).collect(
+                    fields.stream().map(field -> field.getFieldType(namer) + SPACE + field.getFieldName()).collect(
                             Collectors.joining(COMMA_SPACE))
             );
         }
-        recordDeclaration.append(')');
-        recordDeclaration.append(" {");
-        codeLines.add(recordDeclaration.toString());
-        codeLines.add("}");
+        recordDeclaration.append(") ");
+        writer.openBrace(recordDeclaration);
+        writer.line("}");
+        writer.endPhase();
 
     }
 
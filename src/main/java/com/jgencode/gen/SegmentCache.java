@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.values.FormatOptions;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Source code of the members of a definition, kept by member. A member is rendered the first time it is written, and
+ * later writes copy the rendered text without rendering it again.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+final class SegmentCache {
+
+    private final Map<Object, Segment> segments = new IdentityHashMap<>();
+
+    /**
+     * Writes the segment of a member, rendering it if it is not kept or was rendered at another indentation level or
+     * with other format options
+     *
+     * @param writer the source writer
+     * @param member the definition of the member
+     * @param memberWriter renders the member
+     * @throws IOException if the writer fails
+     */
+    void write(SourceWriter writer, Object member, DefinitionBuilder.MemberWriter memberWriter) throws IOException {
+        var segment = segments.get(member);
+        if (segment == null || segment.level != writer.getLevel() || !segment.options.equals(writer.getOptions())) {
+            var text = new StringBuilder();
+            var segmentWriter = new SourceWriter(text, writer.getOptions());
+            for (int i = 0; i < writer.getLevel(); i++) {
+                segmentWriter.indent();
+            }
+            memberWriter.write(segmentWriter);
+            segment = new Segment(text.toString(), segmentWriter.getLineCount(), writer.getLevel(),
+                    writer.getOptions());
+            segments.put(member, segment);
+        }
+        writer.segment(segment.text, segment.lineCount);
+    }
+
+    /**
+     *
+     * @return number of members kept
+     */
+    int size() {
+        return segments.size();
+    }
+
+    private static final class Segment {
+
+        private final String text;
+        private final int lineCount;
+        private final int level;
+        private final FormatOptions options;
+
+        private Segment(String text, int lineCount, int level, FormatOptions options) {
+            this.text = text;
+            this.lineCount = lineCount;
+            this.level = level;
+            this.options = options;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.type.TypeNamer;
+import com.jgencode.gen.values.FormatOptions;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+
+import static com.jgencode.gen.util.Constants.CLASSNAME_PARAMETER;
+
+/**
+ * Source code of a method or a constructor, kept by the member itself, so every definition that has the same member
+ * writes it without rendering it again. The text of a constructor is kept split at the
+ * {@link com.jgencode.gen.util.Constants#CLASSNAME_PARAMETER} placeholder, and each class writes its name between
+ * the parts instead of replacing the placeholder.
+ * <p>
+ * It is only kept for members whose classes are named by their simple name. A member rendered concurrently by two
+ * definitions may be rendered twice, with the same text.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+final class SharedSegment {
+
+    private final boolean splitClassName;
+    private volatile Rendered rendered;
+
+    /**
+     *
+     * @param splitClassName {@code true} to split the text at the class name placeholder
+     */
+    SharedSegment(boolean splitClassName) {
+        this.splitClassName = splitClassName;
+    }
+
+    /**
+     * Writes the member, rendering it if it is not kept or was rendered at another indentation level or with other
+     * format options
+     *
+     * @param writer the source writer
+     * @param namer how the classes of the member are named
+     * @param className name of the class written in place of the placeholder
+     * @param memberWriter renders the member, with the placeholder
+     * @throws IOException if the writer fails
+     */
+    void write(SourceWriter writer, TypeNamer namer, String className, DefinitionBuilder.MemberWriter memberWriter)
+            throws IOException {
+        if (namer != TypeNamer.SIMPLE_NAME) {
+            render(writer, memberWriter).write(writer, className);
+            return;
+        }
+        var current = rendered;
+        if (current == null || current.level != writer.getLevel() || !current.options.equals(writer.getOptions())) {
+            current = render(writer, memberWriter);
+            rendered = current;
+        }
+        current.write(writer, className);
+    }
+
+    private Rendered render(SourceWriter writer, DefinitionBuilder.MemberWriter memberWriter) throws IOException {
+        var text = new StringBuilder();
+        var segmentWriter = new SourceWriter(text, writer.getOptions());
+        for (int i = 0; i < writer.getLevel(); i++) {
+            segmentWriter.indent();
+        }
+        memberWriter.write(segmentWriter);
+        var parts = splitClassName
+                ? StringUtils.splitByWholeSeparatorPreserveAllTokens(text.toString(), CLASSNAME_PARAMETER)
+                : new String[]{text.toString()};
+        return new Rendered(parts, segmentWriter.getLineCount(), writer.getLevel(), writer.getOptions());
+    }
+
+    private static final class Rendered {
+
+        private final String[] parts;
+        private final int lineCount;
+        private final int level;
+        private final FormatOptions options;
+
+        private Rendered(String[] parts, int lineCount, int level, FormatOptions options) {
+            this.parts = parts;
+            this.lineCount = lineCount;
+            this.level = level;
+            this.options = options;
+        }
+
+        private void write(SourceWriter writer, String className) throws IOException {
+            var last = parts.length - 1;
+            for (int i = 0; i < last; i++) {
+                writer.segment(parts[i], 0).segment(className, 0);
+            }
+            writer.segment(parts[last], lineCount);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Source code kept as a sequence of parts. The text written between segments is joined in a single part, and every
+ * segment is kept as the same string of the {@link SegmentCache}, so it is not copied until the source code is
+ * written.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+final class SourceParts implements Appendable {
+
+    private final List<String> parts = new ArrayList<>();
+    private final StringBuilder current = new StringBuilder();
+
+    @Override
+    public SourceParts append(CharSequence csq) {
+        current.append(csq);
+        return this;
+    }
+
+    @Override
+    public SourceParts append(CharSequence csq, int start, int end) {
+        current.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public SourceParts append(char c) {
+        current.append(c);
+        return this;
+    }
+
+    /**
+     * Adds a rendered segment as a part of its own
+     *
+     * @param segment the segment
+     */
+    void appendSegment(String segment) {
+        flush();
+        parts.add(segment);
+    }
+
+    /**
+     *
+     * @return the parts of the source code, in order
+     */
+    List<String> toParts() {
+        flush();
+        return Collections.unmodifiableList(new ArrayList<>(parts));
+    }
+
+    private void flush() {
+        if (current.length() > 0) {
+            parts.add(current.toString());
+            current.setLength(0);
+        }
+    }
+}
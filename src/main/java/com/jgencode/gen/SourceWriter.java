@@ -0,0 +1,280 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.listener.GenerationListener;
+import com.jgencode.gen.util.Indentation;
+import com.jgencode.gen.values.BraceStyle;
+import com.jgencode.gen.values.FormatOptions;
+import com.jgencode.gen.values.GenerationPhase;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import static com.jgencode.gen.util.Constants.OPEN_BRACE;
+
+/**
+ * Writes source code lines, with their indentation, directly into an {@link Appendable}
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class SourceWriter {
+
+    private final Appendable out;
+    private final FormatOptions options;
+    private final String lineSeparator;
+    private final Indentation indentation;
+    private final GenerationListener listener;
+    private final String packageDefinition;
+    private final String className;
+    private int level;
+    private int lineCount;
+    private long charCount;
+    private GenerationPhase phase;
+    private long phaseStart;
+    private int phaseLineCount;
+    private long phaseCharCount;
+
+    /**
+     *
+     * @param out where the source code is written
+     */
+    public SourceWriter(Appendable out) {
+        this(out, FormatOptions.DEFAULT, GenerationListener.NONE, null, null);
+    }
+
+    /**
+     *
+     * @param out where the source code is written
+     * @param options the layout of the source code
+     */
+    public SourceWriter(Appendable out, FormatOptions options) {
+        this(out, options, GenerationListener.NONE, null, null);
+    }
+
+    /**
+     *
+     * @param out where the source code is written
+     * @param listener listener that receives the phases of the definition
+     * @param packageDefinition package of the definition that is written
+     * @param className name of the definition that is written
+     */
+    public SourceWriter(Appendable out, GenerationListener listener, String packageDefinition, String className) {
+        this(out, FormatOptions.DEFAULT, listener, packageDefinition, className);
+    }
+
+    /**
+     *
+     * @param out where the source code is written
+     * @param options the layout of the source code
+     * @param listener listener that receives the phases of the definition
+     * @param packageDefinition package of the definition that is written
+     * @param className name of the definition that is written
+     */
+    public SourceWriter(Appendable out, FormatOptions options, GenerationListener listener, String packageDefinition,
+            String className) {
+        this.out = out;
+        this.options = options;
+        this.lineSeparator = options.getLineSeparator();
+        this.indentation = options.getIndentation();
+        this.listener = listener;
+        this.packageDefinition = packageDefinition;
+        this.className = className;
+    }
+
+    /**
+     * Starts a phase of the rendering. It finishes the current phase, if any.
+     *
+     * @param phase the phase
+     * @return the same writer
+     */
+    public SourceWriter startPhase(GenerationPhase phase) {
+        if (listener == GenerationListener.NONE) {
+            return this;
+        }
+        endPhase();
+        this.phase = phase;
+        listener.phaseStarted(packageDefinition, className, phase);
+        phaseLineCount = lineCount;
+        phaseCharCount = charCount;
+        phaseStart = System.nanoTime();
+        return this;
+    }
+
+    /**
+     * Finishes the current phase of the rendering, reporting its time, lines and characters to the listener
+     *
+     * @return the same writer
+     */
+    public SourceWriter endPhase() {
+        if (phase == null) {
+            return this;
+        }
+        var nanos = System.nanoTime() - phaseStart;
+        listener.phaseCompleted(packageDefinition, className, phase, nanos, lineCount - phaseLineCount,
+                charCount - phaseCharCount);
+        phase = null;
+        return this;
+    }
+
+    /**
+     *
+     * @return number of lines written
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     *
+     * @return number of characters written, including indentation and line separators
+     */
+    public long getCharCount() {
+        return charCount;
+    }
+
+    /**
+     *
+     * @return the layout of the source code
+     */
+    public FormatOptions getOptions() {
+        return options;
+    }
+
+    /**
+     *
+     * @return current indentation level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Increases the indentation level of the following lines
+     *
+     * @return the same writer
+     */
+    public SourceWriter indent() {
+        level++;
+        return this;
+    }
+
+    /**
+     * Decreases the indentation level of the following lines
+     *
+     * @return the same writer
+     */
+    public SourceWriter unindent() {
+        if (level > 0) {
+            level--;
+        }
+        return this;
+    }
+
+    /**
+     * Writes a line prefixed with the current indentation
+     *
+     * @param line the line without indentation nor line separator
+     * @return the same writer
+     * @throws IOException if the underlying appendable fails
+     */
+    public SourceWriter line(CharSequence line) throws IOException {
+        if (level > 0 && (line.length() > 0 || options.isIndentBlankLines())) {
+            var indentation = this.indentation.get(level);
+            out.append(indentation);
+            charCount += indentation.length();
+        }
+        out.append(line).append(lineSeparator);
+        lineCount++;
+        charCount += line.length() + lineSeparator.length();
+        return this;
+    }
+
+    /**
+     * Writes a declaration followed by its opening brace, in the same line or in the next one according to the brace
+     * style
+     *
+     * @param declaration the declaration, without the brace
+     * @return the same writer
+     * @throws IOException if the underlying appendable fails
+     */
+    public SourceWriter openBrace(CharSequence declaration) throws IOException {
+        if (options.getBraceStyle() == BraceStyle.NEXT_LINE) {
+            return line(declaration.toString().stripTrailing()).line(OPEN_BRACE);
+        }
+        return line(declaration + OPEN_BRACE);
+    }
+
+    /**
+     * Writes the blank lines that follow a member, without indentation
+     *
+     * @return the same writer
+     * @throws IOException if the underlying appendable fails
+     */
+    public SourceWriter blankLines() throws IOException {
+        for (int i = 0; i < options.getBlankLinesBetweenMembers(); i++) {
+            newLine();
+        }
+        return this;
+    }
+
+    /**
+     * Writes every line prefixed with the current indentation
+     *
+     * @param lines the lines
+     * @return the same writer
+     * @throws IOException if the underlying appendable fails
+     */
+    public SourceWriter lines(Collection<String> lines) throws IOException {
+        for (String line : lines) {
+            line(line);
+        }
+        return this;
+    }
+
+    /**
+     * Writes text already rendered by another writer, as is
+     *
+     * @param text complete lines, with their indentation and line separators
+     * @param lineCount number of lines of the text
+     * @return the same writer
+     * @throws IOException if the underlying appendable fails
+     */
+    public SourceWriter segment(CharSequence text, int lineCount) throws IOException {
+        if (out instanceof SourceParts && text instanceof String) {
+            ((SourceParts) out).appendSegment((String) text);
+        } else {
+            out.append(text);
+        }
+        this.lineCount += lineCount;
+        charCount += text.length();
+        return this;
+    }
+
+    /**
+     * Writes a line separator, without indentation
+     *
+     * @return the same writer
+     * @throws IOException if the underlying appendable fails
+     */
+    public SourceWriter newLine() throws IOException {
+        out.append(lineSeparator);
+        lineCount++;
+        charCount += lineSeparator.length();
+        return this;
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Generation of a definition, from the import resolution to the file write
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+@Name("com.jgencode.DefinitionBuild")
+@Label("Definition Build")
+@Category("jgencode")
+@Description("Generation of a definition, from the import resolution to the file write")
+class DefinitionBuildEvent extends GenerationEvent {
+
+}
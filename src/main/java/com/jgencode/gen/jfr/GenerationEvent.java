@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base of the Java Flight Recorder events of the generation of a definition
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+abstract class GenerationEvent extends Event {
+
+    @Label("Package")
+    String packageName;
+
+    @Label("Class Name")
+    String className;
+
+    @Label("Lines")
+    int lines;
+
+    @Label("Characters")
+    @Description("Characters of source code, not bytes: the encoding of the output is not known to the events")
+    long chars;
+
+    @Label("Outcome")
+    String outcome;
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.jfr;
+
+import com.jgencode.gen.listener.GenerationListener;
+import com.jgencode.gen.values.GenerationPhase;
+import com.jgencode.gen.values.WriteStatus;
+import jdk.jfr.EventType;
+
+import java.util.Arrays;
+
+/**
+ * Listener that emits Java Flight Recorder events for the generation of every definition, its import resolution,
+ * its member rendering and its file write. A {@link com.jgencode.gen.GenerationBatchBuilder.GenerationBatch} uses it
+ * by itself when a recording that includes these events is running.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class JfrGenerationListener implements GenerationListener {
+
+    /**
+     *
+     */
+    public static final JfrGenerationListener INSTANCE = new JfrGenerationListener();
+
+    private static final String OK = "OK";
+    private static final String FAILED = "FAILED";
+
+    private static final EventType[] EVENT_TYPES = {
+        EventType.getEventType(DefinitionBuildEvent.class),
+        EventType.getEventType(ImportResolutionEvent.class),
+        EventType.getEventType(MemberRenderingEvent.class),
+        EventType.getEventType(FileWriteEvent.class)
+    };
+
+    private final ThreadLocal<DefinitionEvents> currentEvents = ThreadLocal.withInitial(DefinitionEvents::new);
+
+    private JfrGenerationListener() {
+    }
+
+    /**
+     * Whether a running recording includes any of the generation events
+     *
+     * @return {@code true} if some event is enabled
+     */
+    public static boolean isEnabled() {
+        for (EventType eventType : EVENT_TYPES) {
+            if (eventType.isEnabled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void definitionStarted(String packageDefinition, String className) {
+        var events = currentEvents.get();
+        events.clear();
+        events.definition = new DefinitionBuildEvent();
+        events.definition.begin();
+    }
+
+    @Override
+    public void phaseStarted(String packageDefinition, String className, GenerationPhase phase) {
+        var event = createEvent(phase);
+        if (event == null) {
+            return;
+        }
+        currentEvents.get().phases[phase.ordinal()] = event;
+        event.begin();
+    }
+
+    @Override
+    public void phaseCompleted(String packageDefinition, String className, GenerationPhase phase, long nanos,
+            int lines, long chars) {
+        var events = currentEvents.get();
+        if (phase == GenerationPhase.WRITE) {
+            events.writeLines = lines;
+            events.writeChars = chars;
+        } else {
+            // each rendering phase reports only its own lines, the write reports the whole source again
+            events.renderedLines += lines;
+            events.renderedChars += chars;
+        }
+        var event = events.phases[phase.ordinal()];
+        if (event == null) {
+            return;
+        }
+        event.end();
+        fill(event, packageDefinition, className, lines, chars);
+        if (phase == GenerationPhase.WRITE) {
+            // the outcome of the write is known when the definition completes
+            return;
+        }
+        event.outcome = OK;
+        event.commit();
+        events.phases[phase.ordinal()] = null;
+    }
+
+    @Override
+    public void definitionCompleted(String packageDefinition, String className, long nanos, WriteStatus status,
+            Exception error) {
+        var events = currentEvents.get();
+        var outcome = error != null ? FAILED : status.name();
+        var writeEvent = events.phases[GenerationPhase.WRITE.ordinal()];
+        if (writeEvent != null) {
+            if (writeEvent.packageName == null) {
+                writeEvent.end();
+                fill(writeEvent, packageDefinition, className, 0, 0);
+            }
+            writeEvent.outcome = outcome;
+            writeEvent.commit();
+        }
+        var definitionEvent = events.definition;
+        if (definitionEvent != null) {
+            definitionEvent.end();
+            // a definition taken from the render cache has no rendering phases, only the write
+            var rendered = events.renderedLines > 0 || events.renderedChars > 0;
+            fill(definitionEvent, packageDefinition, className, rendered ? events.renderedLines : events.writeLines,
+                    rendered ? events.renderedChars : events.writeChars);
+            definitionEvent.outcome = outcome;
+            definitionEvent.commit();
+        }
+        events.clear();
+    }
+
+    private static GenerationEvent createEvent(GenerationPhase phase) {
+        switch (phase) {
+            case IMPORT_RESOLUTION:
+                return new ImportResolutionEvent();
+            case MEMBERS:
+                return new MemberRenderingEvent();
+            case WRITE:
+                return new FileWriteEvent();
+            default:
+                return null;
+        }
+    }
+
+    private static void fill(GenerationEvent event, String packageDefinition, String className, int lines,
+            long chars) {
+        event.packageName = packageDefinition;
+        event.className = className;
+        event.lines = lines;
+        event.chars = chars;
+    }
+
+    private static class DefinitionEvents {
+
+        private final GenerationEvent[] phases = new GenerationEvent[GenerationPhase.values().length];
+        private DefinitionBuildEvent definition;
+        private int renderedLines;
+        private long renderedChars;
+        private int writeLines;
+        private long writeChars;
+
+        private void clear() {
+            Arrays.fill(phases, null);
+            definition = null;
+            renderedLines = 0;
+            renderedChars = 0;
+            writeLines = 0;
+            writeChars = 0;
+        }
+    }
+}
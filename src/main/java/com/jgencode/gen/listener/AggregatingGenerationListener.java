@@ -0,0 +1,210 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.listener;
+
+import com.jgencode.gen.values.GenerationPhase;
+import com.jgencode.gen.values.WriteStatus;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener that aggregates the timings, line counts and character counts of every phase and definition. The summary
+ * includes a histogram of the durations in power of two buckets of microseconds. It can be shared by concurrent
+ * batches.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class AggregatingGenerationListener implements GenerationListener {
+
+    private static final int BUCKETS = 32;
+    private static final int BAR_WIDTH = 40;
+
+    private final Map<GenerationPhase, Statistics> phases = new EnumMap<>(GenerationPhase.class);
+    private final Statistics definitions = new Statistics();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     *
+     */
+    public AggregatingGenerationListener() {
+        for (GenerationPhase phase : GenerationPhase.values()) {
+            phases.put(phase, new Statistics());
+        }
+    }
+
+    @Override
+    public void phaseCompleted(String packageDefinition, String className, GenerationPhase phase, long nanos,
+            int lines, long chars) {
+        phases.get(phase).record(nanos, lines, chars);
+    }
+
+    @Override
+    public void definitionCompleted(String packageDefinition, String className, long nanos, WriteStatus status,
+            Exception error) {
+        definitions.record(nanos, 0, 0);
+        if (error != null) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Number of definitions completed
+     *
+     * @return the number of definitions
+     */
+    public long getDefinitionCount() {
+        return definitions.count.sum();
+    }
+
+    /**
+     * Number of definitions that failed
+     *
+     * @return the number of definitions
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Total time spent in a phase, in nanoseconds, adding up every definition
+     *
+     * @param phase the phase
+     * @return the total time
+     */
+    public long getTotalNanos(GenerationPhase phase) {
+        return phases.get(phase).totalNanos.sum();
+    }
+
+    /**
+     * Number of lines rendered or written in a phase, adding up every definition
+     *
+     * @param phase the phase
+     * @return the number of lines
+     */
+    public long getLines(GenerationPhase phase) {
+        return phases.get(phase).lines.sum();
+    }
+
+    /**
+     * Number of characters rendered or written in a phase, adding up every definition
+     *
+     * @param phase the phase
+     * @return the number of characters
+     */
+    public long getChars(GenerationPhase phase) {
+        return phases.get(phase).chars.sum();
+    }
+
+    /**
+     * Prints the summary of the phases and definitions with their histograms
+     *
+     * @param out where the summary is printed
+     */
+    public void printSummary(PrintStream out) {
+        out.print(getSummary());
+        out.flush();
+    }
+
+    /**
+     *
+     * @return the summary of the phases and definitions with their histograms
+     */
+    public String getSummary() {
+        var summary = new StringBuilder();
+        summary.append(String.format(Locale.ROOT, "%-18s %10s %12s %10s %10s %10s %12s %14s%n",
+                "phase", "count", "total ms", "mean us", "min us", "max us", "lines", "chars"));
+        phases.forEach((phase, statistics) -> statistics.appendRow(summary, phase.name()));
+        definitions.appendRow(summary, "DEFINITION");
+        summary.append(String.format(Locale.ROOT, "failures: %d%n", failures.sum()));
+        phases.forEach((phase, statistics) -> statistics.appendHistogram(summary, phase.name()));
+        definitions.appendHistogram(summary, "DEFINITION");
+        return summary.toString();
+    }
+
+    private static int bucketOf(long nanos) {
+        var micros = nanos / 1000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket == 0) {
+            return "< 1 us";
+        }
+        if (bucket == BUCKETS - 1) {
+            return ">= " + (1L << (bucket - 1)) + " us";
+        }
+        return "< " + (1L << bucket) + " us";
+    }
+
+    private static class Statistics {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder lines = new LongAdder();
+        private final LongAdder chars = new LongAdder();
+        private final LongAccumulator minNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        private void record(long nanos, int lineCount, long charCount) {
+            count.increment();
+            totalNanos.add(nanos);
+            lines.add(lineCount);
+            chars.add(charCount);
+            minNanos.accumulate(nanos);
+            maxNanos.accumulate(nanos);
+            histogram.incrementAndGet(bucketOf(nanos));
+        }
+
+        private void appendRow(StringBuilder summary, String name) {
+            var total = count.sum();
+            if (total == 0) {
+                return;
+            }
+            var nanos = totalNanos.sum();
+            summary.append(String.format(Locale.ROOT, "%-18s %10d %12.3f %10.3f %10.3f %10.3f %12d %14d%n",
+                    name, total, nanos / 1e6, nanos / 1e3 / total, minNanos.get() / 1e3, maxNanos.get() / 1e3,
+                    lines.sum(), chars.sum()));
+        }
+
+        private void appendHistogram(StringBuilder summary, String name) {
+            long max = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                max = Math.max(max, histogram.get(i));
+            }
+            if (max == 0) {
+                return;
+            }
+            summary.append(System.lineSeparator()).append(name).append(System.lineSeparator());
+            for (int i = 0; i < BUCKETS; i++) {
+                var value = histogram.get(i);
+                if (value == 0) {
+                    continue;
+                }
+                var bar = StringUtils.repeat('#', (int) Math.max(1, value * BAR_WIDTH / max));
+                summary.append(String.format(Locale.ROOT, "  %12s | %-" + BAR_WIDTH + "s %d%n",
+                        bucketLabel(i), bar, value));
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.listener;
+
+import com.jgencode.gen.values.GenerationPhase;
+import com.jgencode.gen.values.WriteStatus;
+
+/**
+ * Receives the lifecycle events of the generation of the definitions. Every method does nothing by default, so an
+ * implementation only overrides the events it needs. The methods can be called concurrently from the threads of a
+ * {@link com.jgencode.gen.GenerationBatchBuilder.GenerationBatch}.
+ * <p>
+ * The phases of a definition are reported while it is rendered with
+ * {@link com.jgencode.gen.DefinitionBuilder#build(GenerationListener)}. The {@link GenerationPhase#WRITE} phase and
+ * the start and end of the whole definition are reported by the batch.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public interface GenerationListener {
+
+    /**
+     * A listener that ignores every event. When it is used no time is measured.
+     */
+    GenerationListener NONE = new GenerationListener() {
+    };
+
+    /**
+     * The generation of a definition started
+     *
+     * @param packageDefinition package of the definition
+     * @param className name of the definition
+     */
+    default void definitionStarted(String packageDefinition, String className) {
+    }
+
+    /**
+     * A phase of the generation of a definition started
+     *
+     * @param packageDefinition package of the definition
+     * @param className name of the definition
+     * @param phase the phase
+     */
+    default void phaseStarted(String packageDefinition, String className, GenerationPhase phase) {
+    }
+
+    /**
+     * A phase of the generation of a definition finished
+     *
+     * @param packageDefinition package of the definition
+     * @param className name of the definition
+     * @param phase the phase
+     * @param nanos elapsed time of the phase, in nanoseconds
+     * @param lines number of lines rendered or written in the phase
+     * @param chars number of characters rendered or written in the phase
+     */
+    default void phaseCompleted(String packageDefinition, String className, GenerationPhase phase, long nanos,
+            int lines, long chars) {
+    }
+
+    /**
+     * The generation of a definition finished
+     *
+     * @param packageDefinition package of the definition
+     * @param className name of the definition
+     * @param nanos elapsed time of the whole generation, in nanoseconds
+     * @param status whether the file was written, {@code null} if the definition failed
+     * @param error the exception that made the definition fail, {@code null} if it succeeded
+     */
+    default void definitionCompleted(String packageDefinition, String className, long nanos, WriteStatus status,
+            Exception error) {
+    }
+
+    /**
+     * Creates a listener that sends every event to this listener and then to another one
+     *
+     * @param next the listener that receives the events after this one
+     * @return the combined listener
+     */
+    default GenerationListener andThen(GenerationListener next) {
+        if (next == NONE) {
+            return this;
+        }
+        if (this == NONE) {
+            return next;
+        }
+        var first = this;
+        return new GenerationListener() {
+            @Override
+            public void definitionStarted(String packageDefinition, String className) {
+                first.definitionStarted(packageDefinition, className);
+                next.definitionStarted(packageDefinition, className);
+            }
+
+            @Override
+            public void phaseStarted(String packageDefinition, String className, GenerationPhase phase) {
+                first.phaseStarted(packageDefinition, className, phase);
+                next.phaseStarted(packageDefinition, className, phase);
+            }
+
+            @Override
+            public void phaseCompleted(String packageDefinition, String className, GenerationPhase phase, long nanos,
+                    int lines, long chars) {
+                first.phaseCompleted(packageDefinition, className, phase, nanos, lines, chars);
+                next.phaseCompleted(packageDefinition, className, phase, nanos, lines, chars);
+            }
+
+            @Override
+            public void definitionCompleted(String packageDefinition, String className, long nanos,
+                    WriteStatus status, Exception error) {
+                first.definitionCompleted(packageDefinition, className, nanos, status, error);
+                next.definitionCompleted(packageDefinition, className, nanos, status, error);
+            }
+        };
+    }
+}
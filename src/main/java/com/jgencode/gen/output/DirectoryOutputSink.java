@@ -0,0 +1,272 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.output;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.values.WriteMode;
+import com.jgencode.gen.values.WriteStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes the definitions as .java files under a directory, in the folders of their packages.
+ * <p>
+ * The package directories that were already created are remembered, so thousands of classes of the same package do
+ * not check the directory again. With atomic writes every file is written to a temporary file in the same directory
+ * and then moved over the target, so readers such as IDEs and file watchers never see a half-written source.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class DirectoryOutputSink implements OutputSink {
+
+    private static final int COMPARE_BUFFER_SIZE = 8192;
+
+    private final Path destinationPath;
+    private final WriteMode writeMode;
+    private final boolean atomicWrites;
+    private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+    private final LongAdder filesWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder directoriesCreated = new LongAdder();
+    private final LongAdder directoryChecksSaved = new LongAdder();
+
+    /**
+     *
+     * @param destinationPath the root directory of the generated files
+     */
+    public DirectoryOutputSink(Path destinationPath) {
+        this(destinationPath, WriteMode.OVERWRITE);
+    }
+
+    /**
+     *
+     * @param destinationPath the root directory of the generated files
+     * @param writeMode how existing files are written
+     */
+    public DirectoryOutputSink(Path destinationPath, WriteMode writeMode) {
+        this(destinationPath, writeMode, false);
+    }
+
+    /**
+     *
+     * @param destinationPath the root directory of the generated files
+     * @param writeMode how existing files are written
+     * @param atomicWrites {@code true} to write every file through a temporary file and an atomic move
+     */
+    public DirectoryOutputSink(Path destinationPath, WriteMode writeMode, boolean atomicWrites) {
+        this.destinationPath = destinationPath;
+        this.writeMode = writeMode;
+        this.atomicWrites = atomicWrites;
+    }
+
+    /**
+     *
+     * @param definition the definition
+     * @return the path of the .java file of the definition
+     */
+    public Path getFilePath(Definition definition) {
+        return destinationPath.resolve(definition.getPackagePath())
+                .resolve(Path.of(String.format(
+                        "%s.java", definition.getClassName())));
+    }
+
+    @Override
+    public WriteStatus write(Definition definition) throws IOException {
+        Path javaFilePath = getFilePath(definition);
+        if (writeMode == WriteMode.SKIP_UNCHANGED) {
+            var content = new ByteArrayOutputStream();
+            definition.writeTo(content);
+            var bytes = content.toByteArray();
+            if (hasContent(javaFilePath, bytes)) {
+                return WriteStatus.UNCHANGED;
+            }
+            writeFile(javaFilePath, out -> out.write(bytes));
+        } else {
+            writeFile(javaFilePath, definition::writeTo);
+        }
+        return WriteStatus.WRITTEN;
+    }
+
+    private void writeFile(Path javaFilePath, ContentWriter contentWriter) throws IOException {
+        var directory = javaFilePath.getParent();
+        createDirectories(directory);
+        try {
+            doWriteFile(javaFilePath, contentWriter);
+        } catch (NoSuchFileException ex) {
+            // the directory was deleted after it was created by this sink
+            createdDirectories.remove(directory);
+            createDirectories(directory);
+            doWriteFile(javaFilePath, contentWriter);
+        }
+        filesWritten.increment();
+    }
+
+    private void doWriteFile(Path javaFilePath, ContentWriter contentWriter) throws IOException {
+        if (!atomicWrites) {
+            try (var out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(javaFilePath)))) {
+                contentWriter.write(out);
+            }
+            return;
+        }
+        Path temporaryPath;
+        OutputStream temporaryOut;
+        while (true) {
+            temporaryPath = createTemporaryPath(javaFilePath);
+            try {
+                temporaryOut = Files.newOutputStream(temporaryPath, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+                break;
+            } catch (FileAlreadyExistsException ex) {
+                // another writer has a temporary file with the same name, never write into it
+            }
+        }
+        try {
+            try (var out = new CountingOutputStream(new BufferedOutputStream(temporaryOut))) {
+                contentWriter.write(out);
+            }
+            moveAtomically(temporaryPath, javaFilePath);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * A hidden file next to the target with a random name, so it never matches the temporary file of another sink or
+     * process writing the same directory
+     */
+    private static Path createTemporaryPath(Path javaFilePath) {
+        return javaFilePath.resolveSibling("." + javaFilePath.getFileName() + "."
+                + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX) + ".tmp");
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void createDirectories(Path directory) throws IOException {
+        if (createdDirectories.contains(directory)) {
+            directoryChecksSaved.increment();
+            return;
+        }
+        Files.createDirectories(directory);
+        if (createdDirectories.add(directory)) {
+            directoriesCreated.increment();
+        }
+    }
+
+    /**
+     * Number of files written by this sink
+     *
+     * @return the number of files
+     */
+    public long getFilesWritten() {
+        return filesWritten.sum();
+    }
+
+    /**
+     * Number of bytes written by this sink
+     *
+     * @return the number of bytes
+     */
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * Number of package directories checked or created by this sink
+     *
+     * @return the number of directories
+     */
+    public long getDirectoriesCreated() {
+        return directoriesCreated.sum();
+    }
+
+    /**
+     * Number of times a directory was not checked again because it was already created. Each one saves the stat
+     * calls of {@link Files#createDirectories}.
+     *
+     * @return the number of directory checks saved
+     */
+    public long getDirectoryChecksSaved() {
+        return directoryChecksSaved.sum();
+    }
+
+    private static boolean hasContent(Path path, byte[] content) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) != content.length) {
+            return false;
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(Math.min(COMPARE_BUFFER_SIZE, Math.max(content.length, 1)));
+            int position = 0;
+            int read;
+            while ((read = channel.read(buffer)) > 0) {
+                if (position + read > content.length
+                        || !Arrays.equals(buffer.array(), 0, read, content, position, position + read)) {
+                    return false;
+                }
+                position += read;
+                buffer.clear();
+            }
+            return position == content.length;
+        }
+    }
+
+    private interface ContentWriter {
+
+        void write(OutputStream out) throws IOException;
+    }
+
+    private class CountingOutputStream extends FilterOutputStream {
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytesWritten.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytesWritten.add(len);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.output;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.values.WriteStatus;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import java.io.IOException;
+
+/**
+ * Writes the definitions through the {@link Filer} of an annotation processor, so javac compiles them in the same
+ * round without going through an output directory chosen by the processor.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class FilerOutputSink implements OutputSink {
+
+    private final Filer filer;
+    private final Element[] originatingElements;
+
+    /**
+     *
+     * @param filer the filer of the processing environment
+     * @param originatingElements the elements the sources are generated from
+     */
+    public FilerOutputSink(Filer filer, Element... originatingElements) {
+        this.filer = filer;
+        this.originatingElements = originatingElements;
+    }
+
+    /**
+     * Creates the source file of a definition. The calls are serialized because a {@link Filer} is not thread safe.
+     *
+     * @param definition the definition
+     * @return {@link WriteStatus#WRITTEN}
+     * @throws IOException if the source file can't be created, for example because it was already created
+     */
+    @Override
+    public synchronized WriteStatus write(Definition definition) throws IOException {
+        var sourceFile = filer.createSourceFile(definition.getQualifiedName(), originatingElements);
+        try (var writer = sourceFile.openWriter()) {
+            definition.writeTo(writer);
+        }
+        return WriteStatus.WRITTEN;
+    }
+}
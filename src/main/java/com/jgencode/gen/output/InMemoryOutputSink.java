@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.output;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.values.WriteStatus;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the source code of the definitions in memory, keyed by their fully qualified name. Useful for tests and to
+ * compile the sources in the same process.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class InMemoryOutputSink implements OutputSink {
+
+    private final Map<String, String> sources = new ConcurrentHashMap<>();
+
+    @Override
+    public WriteStatus write(Definition definition) throws IOException {
+        var source = new StringBuilder();
+        definition.writeTo(source);
+        var previous = sources.put(definition.getQualifiedName(), source.toString());
+        return source.toString().equals(previous) ? WriteStatus.UNCHANGED : WriteStatus.WRITTEN;
+    }
+
+    /**
+     *
+     * @param qualifiedName the fully qualified name of the class
+     * @return the source code, {@code null} if it was not written
+     */
+    public String getSource(String qualifiedName) {
+        return sources.get(qualifiedName);
+    }
+
+    /**
+     *
+     * @return the source code of every definition, keyed by the fully qualified name
+     */
+    public Map<String, String> getSources() {
+        return Collections.unmodifiableMap(sources);
+    }
+}
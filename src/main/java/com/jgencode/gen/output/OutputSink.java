@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.output;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.values.WriteStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination of the source code of the definitions. Implementations must allow concurrent calls to
+ * {@link #write(Definition)}.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public interface OutputSink extends Closeable {
+
+    /**
+     * Writes the source code of a definition
+     *
+     * @param definition the definition
+     * @return whether the source was written or left untouched
+     * @throws IOException if the source can't be written
+     */
+    WriteStatus write(Definition definition) throws IOException;
+
+    /**
+     * Finishes the output. By default it does nothing.
+     *
+     * @throws IOException if the output can't be finished
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
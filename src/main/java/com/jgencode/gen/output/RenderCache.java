@@ -0,0 +1,461 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.output;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.util.Fingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * A cache of rendered source code in a local directory, shared by the builds of a machine. Every entry is a file named
+ * after the {@link Fingerprint} of the definition, with the source code compressed with deflate, so the same inputs
+ * are never rendered twice.
+ * <p>
+ * The cache is bounded in bytes: when it grows beyond its maximum size the least recently used entries are deleted.
+ * The recency survives between processes through the modification time of the files. Hits read the compressed entry
+ * with a {@link FileChannel} and inflate it only when the definition is written; a definition written to a file
+ * copies the UTF-8 bytes without decoding them.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class RenderCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RenderCache.class);
+
+    private static final String ENTRY_EXTENSION = ".jgz";
+    private static final int MAGIC = 0x4a47_5a31;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long size;
+
+    /**
+     * Opens a cache directory, creating it if it doesn't exist. The entries already present are indexed from the
+     * oldest to the most recently used.
+     *
+     * @param directory the directory of the cache
+     * @param maxBytes the maximum size of the compressed entries
+     * @throws IOException if the directory can't be created or listed
+     */
+    public RenderCache(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        loadEntries();
+        evict();
+    }
+
+    private void loadEntries() throws IOException {
+        List<Path> files;
+        try (var list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().endsWith(ENTRY_EXTENSION))
+                    .collect(Collectors.toList());
+        }
+        var lastModified = new LinkedHashMap<Path, FileTime>();
+        for (Path file : files) {
+            try {
+                lastModified.put(file, Files.getLastModifiedTime(file));
+            } catch (NoSuchFileException ex) {
+                // deleted by another process
+            }
+        }
+        var sorted = new ArrayList<>(lastModified.keySet());
+        sorted.sort(Comparator.comparing(lastModified::get));
+        synchronized (entries) {
+            for (Path file : sorted) {
+                try {
+                    var fileSize = Files.size(file);
+                    entries.put(getKey(file), fileSize);
+                    size += fileSize;
+                } catch (NoSuchFileException ex) {
+                    // deleted by another process
+                }
+            }
+        }
+        LOGGER.debug("render cache {} has {} entries and {} bytes", directory, entries.size(), size);
+    }
+
+    /**
+     * Looks up the rendered source of a fingerprint. The compressed entry is read into memory, so it stays valid
+     * even if it is evicted later.
+     *
+     * @param fingerprint the fingerprint of the definition
+     * @return the rendered source, or {@code null} if the cache doesn't have it
+     * @throws IOException if the entry exists but can't be read
+     */
+    public CachedSource get(Fingerprint fingerprint) throws IOException {
+        var key = fingerprint.toString();
+        var path = directory.resolve(key + ENTRY_EXTENSION);
+        ByteBuffer content;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var channelSize = channel.size();
+            if (channelSize < HEADER_SIZE || channelSize > Integer.MAX_VALUE) {
+                return discard(key, path);
+            }
+            content = ByteBuffer.allocate((int) channelSize);
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                // reads the complete entry
+            }
+        } catch (NoSuchFileException ex) {
+            synchronized (entries) {
+                var removed = entries.remove(key);
+                if (removed != null) {
+                    size -= removed;
+                }
+            }
+            misses.increment();
+            return null;
+        }
+        content.flip();
+        if (content.remaining() < HEADER_SIZE || content.getInt() != MAGIC) {
+            return discard(key, path);
+        }
+        var charCount = content.getLong();
+        var lineCount = content.getInt();
+        touch(key, path, content.limit());
+        hits.increment();
+        return new CachedSource(fingerprint, charCount, lineCount, content.slice());
+    }
+
+    private CachedSource discard(String key, Path path) throws IOException {
+        LOGGER.warn("discarding the invalid render cache entry {}", path);
+        remove(key);
+        Files.deleteIfExists(path);
+        misses.increment();
+        return null;
+    }
+
+    private void touch(String key, Path path, long fileSize) {
+        synchronized (entries) {
+            var previous = entries.put(key, fileSize);
+            size += fileSize - (previous == null ? 0 : previous);
+        }
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ex) {
+            LOGGER.debug("the use of {} could not be recorded", path, ex);
+        }
+    }
+
+    /**
+     * Stores the rendered source of a definition. The entry is written to a temporary file with a random name and
+     * moved into place, so concurrent readers and writers, even from other processes, never see a partial entry.
+     *
+     * @param fingerprint the fingerprint of the definition
+     * @param definition the rendered definition
+     * @throws IOException if the entry can't be written
+     */
+    public void put(Fingerprint fingerprint, Definition definition) throws IOException {
+        var key = fingerprint.toString();
+        var path = directory.resolve(key + ENTRY_EXTENSION);
+        Path temporaryPath;
+        FileChannel temporaryChannel;
+        while (true) {
+            temporaryPath = directory.resolve("." + key + "."
+                    + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX) + ".tmp");
+            try {
+                temporaryChannel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+                break;
+            } catch (FileAlreadyExistsException ex) {
+                // another writer has a temporary file with the same name, never write into it nor delete it
+            }
+        }
+        try {
+            try (var channel = temporaryChannel) {
+                var header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC)
+                        .putLong(definition.getCharCount())
+                        .putInt(definition.getLineCount())
+                        .flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                var deflater = new Deflater();
+                try (var out = new DeflaterOutputStream(Channels.newOutputStream(channel), deflater, BUFFER_SIZE)) {
+                    definition.writeTo(out);
+                } finally {
+                    deflater.end();
+                }
+            }
+            var fileSize = Files.size(temporaryPath);
+            try {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            synchronized (entries) {
+                var previous = entries.put(key, fileSize);
+                size += fileSize - (previous == null ? 0 : previous);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+        evict();
+    }
+
+    private void remove(String key) {
+        synchronized (entries) {
+            var removed = entries.remove(key);
+            if (removed != null) {
+                size -= removed;
+            }
+        }
+    }
+
+    private void evict() throws IOException {
+        var evicted = new ArrayList<String>();
+        synchronized (entries) {
+            var iterator = entries.entrySet().iterator();
+            while (size > maxBytes && iterator.hasNext()) {
+                var eldest = iterator.next();
+                size -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                iterator.remove();
+            }
+        }
+        for (String key : evicted) {
+            Files.deleteIfExists(directory.resolve(key + ENTRY_EXTENSION));
+            evictions.increment();
+        }
+    }
+
+    private static String getKey(Path file) {
+        var fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.length() - ENTRY_EXTENSION.length());
+    }
+
+    /**
+     *
+     * @return the directory of the cache
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     *
+     * @return the maximum size of the compressed entries
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Size of the entries known by this cache. Entries written by other processes are counted once they are used.
+     *
+     * @return the number of bytes
+     */
+    public long getSize() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    /**
+     *
+     * @return number of entries known by this cache
+     */
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     *
+     * @return number of lookups that found their entry
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     *
+     * @return number of lookups that didn't find their entry
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     *
+     * @return number of entries deleted to keep the cache under its maximum size
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * The rendered source of a definition, as read from the cache. It holds the compressed bytes and inflates them
+     * every time it is written.
+     */
+    public static final class CachedSource {
+
+        private final Fingerprint fingerprint;
+        private final long charCount;
+        private final int lineCount;
+        private final ByteBuffer compressed;
+
+        private CachedSource(Fingerprint fingerprint, long charCount, int lineCount, ByteBuffer compressed) {
+            this.fingerprint = fingerprint;
+            this.charCount = charCount;
+            this.lineCount = lineCount;
+            this.compressed = compressed;
+        }
+
+        /**
+         *
+         * @return the fingerprint of the definition
+         */
+        public Fingerprint getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         *
+         * @return number of characters of the source code
+         */
+        public long getCharCount() {
+            return charCount;
+        }
+
+        /**
+         *
+         * @return number of lines of the source code
+         */
+        public int getLineCount() {
+            return lineCount;
+        }
+
+        /**
+         *
+         * @return size of the compressed source code
+         */
+        public int getCompressedSize() {
+            return compressed.remaining();
+        }
+
+        /**
+         * Writes the source code encoded in UTF-8, as it was stored, without decoding it
+         *
+         * @param out where the source code is written
+         * @throws IOException if the stream fails or the entry is corrupt
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            inflate(bytes -> {
+                out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+                bytes.position(bytes.limit());
+            });
+        }
+
+        /**
+         * Writes the source code decoded from UTF-8
+         *
+         * @param out where the source code is written
+         * @throws IOException if the appendable fails or the entry is corrupt
+         */
+        public void writeTo(Appendable out) throws IOException {
+            var decoder = StandardCharsets.UTF_8.newDecoder();
+            var chars = CharBuffer.allocate(BUFFER_SIZE);
+            inflate(bytes -> decode(decoder, bytes, chars, out, false));
+            decode(decoder, ByteBuffer.allocate(0), chars, out, true);
+            decoder.flush(chars);
+            out.append(chars.flip());
+        }
+
+        private static void decode(CharsetDecoder decoder, ByteBuffer bytes, CharBuffer chars, Appendable out,
+                boolean endOfInput) throws IOException {
+            CoderResult result;
+            do {
+                result = decoder.decode(bytes, chars, endOfInput);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                out.append(chars.flip());
+                chars.clear();
+            } while (result.isOverflow());
+        }
+
+        private void inflate(ChunkConsumer consumer) throws IOException {
+            var inflater = new Inflater();
+            try {
+                inflater.setInput(compressed.duplicate());
+                var bytes = ByteBuffer.allocate(BUFFER_SIZE);
+                while (!inflater.finished()) {
+                    if (inflater.inflate(bytes) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("truncated render cache entry " + fingerprint);
+                    }
+                    bytes.flip();
+                    consumer.accept(bytes);
+                    bytes.compact();
+                }
+                if (bytes.position() > 0) {
+                    throw new IOException("incomplete character in render cache entry " + fingerprint);
+                }
+            } catch (DataFormatException ex) {
+                throw new IOException("corrupt render cache entry " + fingerprint, ex);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    private interface ChunkConsumer {
+
+        void accept(ByteBuffer bytes) throws IOException;
+    }
+}
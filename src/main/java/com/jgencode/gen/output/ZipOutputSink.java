@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.output;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.values.WriteStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams the definitions into a zip file, such as a sources jar. Each definition is rendered directly into its zip
+ * entry. Every entry has the same fixed time, so the same definitions always produce the same bytes. The sink must be
+ * closed to finish the file.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class ZipOutputSink implements OutputSink {
+
+    /**
+     * Time of every entry, the one used by the reproducible archives of other build tools
+     */
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0);
+
+    private final ZipOutputStream zipOutputStream;
+    private final Set<String> entryNames = new HashSet<>();
+
+    /**
+     *
+     * @param zipPath the zip file to create
+     * @throws IOException if the file can't be created
+     */
+    public ZipOutputSink(Path zipPath) throws IOException {
+        this(new BufferedOutputStream(Files.newOutputStream(zipPath)));
+    }
+
+    /**
+     *
+     * @param out where the zip file is written, it is closed with the sink
+     */
+    public ZipOutputSink(OutputStream out) {
+        this.zipOutputStream = new ZipOutputStream(out);
+    }
+
+    /**
+     * Writes a definition in a new entry
+     *
+     * @param definition the definition
+     * @return {@link WriteStatus#WRITTEN}
+     * @throws FileAlreadyExistsException if the zip file already has an entry for the definition, the file is still
+     * valid and the other entries can be written
+     * @throws IOException if the entry can't be written
+     */
+    @Override
+    public synchronized WriteStatus write(Definition definition) throws IOException {
+        var entryName = definition.getSourceFileName();
+        if (!entryNames.add(entryName)) {
+            throw new FileAlreadyExistsException(entryName, null, "duplicate entry in the zip file");
+        }
+        var entry = new ZipEntry(entryName);
+        entry.setTimeLocal(ENTRY_TIME);
+        zipOutputStream.putNextEntry(entry);
+        definition.writeTo(zipOutputStream);
+        zipOutputStream.closeEntry();
+        return WriteStatus.WRITTEN;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        zipOutputStream.close();
+    }
+}
@@ -15,13 +15,13 @@
  */
 package com.jgencode.gen.type;
 
+import com.jgencode.gen.values.FormatOptions;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import static com.jgencode.gen.DefinitionBuilder.getIndentation;
 import static com.jgencode.gen.util.Constants.COMMA;
 
 /**
@@ -56,8 +56,28 @@ public class AnnotationType {
      * @return
      */
     public List<String> createSourceLines() {
+        return createSourceLines(TypeNamer.SIMPLE_NAME);
+    }
+
+    /**
+     *
+     * @param namer how the classes of the annotation and its attributes are named
+     * @return the source lines of the annotation
+     */
+    public List<String> createSourceLines(TypeNamer namer) {
+        return createSourceLines(namer, FormatOptions.DEFAULT);
+    }
+
+    /**
+     *
+     * @param namer how the classes of the annotation and its attributes are named
+     * @param options the layout of the source code
+     * @return the source lines of the annotation
+     */
+    public List<String> createSourceLines(TypeNamer namer, FormatOptions options) {
+        var attributeIndentation = options.getIndentation().get(1);
         List<String> lines = new ArrayList<>();
-        String annotation = "@" + classType.getClassName();
+        String annotation = "@" + namer.name(classType);
         if (attributes.isEmpty()) {
             lines.add(annotation);
         } else {
@@ -65,13 +85,13 @@ public class AnnotationType {
             attributes.forEach((key, value) -> {
                 Object toValue;
                 if (value instanceof ClassType) {
-                    toValue = ((ClassType) value).getClassName() + ".class";
+                    toValue = namer.name((ClassType) value) + ".class";
                 } else if ((value instanceof Number) || (value instanceof Boolean)) {
-                    toValue = (String.format("%s", value));
+                    toValue = String.valueOf(value);
                 } else {
-                    toValue = (String.format("\"%s\"", value));
+                    toValue = "\"" + value + "\"";
                 }
-                lines.add(String.format("%s%s = %s,", getIndentation(1), key, toValue));
+                lines.add(attributeIndentation + key + " = " + toValue + COMMA);
             });
             String lastLine = lines.get(lines.size() - 1);
             lastLine = StringUtils.substringBeforeLast(lastLine, COMMA);
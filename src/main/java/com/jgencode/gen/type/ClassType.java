@@ -17,27 +17,96 @@ package com.jgencode.gen.type;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static com.jgencode.gen.util.Constants.COMMA;
 import static com.jgencode.gen.util.Constants.LESS_THAN;
 import static com.jgencode.gen.util.Constants.MORE_THAN;
+import static com.jgencode.gen.util.Constants.PERIOD;
 
 /**
+ * An immutable class type. The instances created by {@link ClassTypeBuilder} are interned in the {@link ClassTypePool},
+ * so equal types are the same instance and can be shared between threads. The full name and the name with generics
+ * are computed once.
  *
  * @author Diego Silva diego.silva at apuntesdejava.com
  */
 public class ClassType extends JavaType {
 
+    /**
+     * Bound of a wildcard type argument
+     */
+    public enum Wildcard {
+        /**
+         * {@code ? extends}
+         */
+        EXTENDS("? extends "),
+        /**
+         * {@code ? super}
+         */
+        SUPER("? super ");
+
+        private final String prefix;
+
+        Wildcard(String prefix) {
+            this.prefix = prefix;
+        }
+
+        /**
+         *
+         * @return the source code that goes before the bound
+         */
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+
+    private static final String ARRAY = "[]";
+    private static final String VARARGS = "...";
+
     private final String packageName;
     private final String classNameNoGeneric;
-    Map<String, Object> generics;
+    private final Map<String, Object> generics;
+    private final List<Map.Entry<String, Object>> genericEntries;
+    private final Wildcard wildcard;
+    private final int arrayDimensions;
+    private final boolean varargs;
+    private final int hash;
+    private String fullClassName;
+    private String classNameWithGeneric;
 
     ClassType(String packageName, String className) {
+        this(packageName, className, null);
+    }
+
+    ClassType(String packageName, String className, Map<String, Object> generics) {
+        this(packageName, className, generics, null, 0, false);
+    }
+
+    ClassType(String packageName, String className, Map<String, Object> generics, Wildcard wildcard,
+            int arrayDimensions, boolean varargs) {
         super(className);
         this.packageName = packageName;
         this.classNameNoGeneric = StringUtils.substringBefore(className, LESS_THAN);
+        this.generics = generics == null || generics.isEmpty()
+                ? null
+                : Collections.unmodifiableMap(new LinkedHashMap<>(generics));
+        // the generics are compared in declaration order, Map<K, V> and Map<V, K> are different types
+        this.genericEntries = this.generics == null
+                ? null
+                : this.generics.entrySet().stream()
+                        .<Map.Entry<String, Object>>map(AbstractMap.SimpleImmutableEntry::new)
+                        .collect(Collectors.toUnmodifiableList());
+        this.wildcard = wildcard;
+        this.arrayDimensions = arrayDimensions;
+        this.varargs = varargs;
+        this.hash = Objects.hash(packageName, className, genericEntries, wildcard, arrayDimensions, varargs);
     }
 
     /**
@@ -47,7 +116,7 @@ public class ClassType extends JavaType {
      * @return
      */
     public static ClassType createClassTypeWithPackageAndName(String packageName, String className) {
-        return new ClassType(packageName, className);
+        return ClassTypePool.intern(new ClassType(packageName, className));
     }
 
     /**
@@ -63,10 +132,12 @@ public class ClassType extends JavaType {
      * @return
      */
     public String getFullClassName() {
-        if (StringUtils.isBlank(packageName)) {
-            return classNameNoGeneric;
+        var name = fullClassName;
+        if (name == null) {
+            name = StringUtils.isBlank(packageName) ? classNameNoGeneric : packageName + PERIOD + classNameNoGeneric;
+            fullClassName = name;
         }
-        return String.format("%s.%s", packageName, classNameNoGeneric);
+        return name;
     }
 
     /**
@@ -82,19 +153,75 @@ public class ClassType extends JavaType {
      * @return
      */
     public String getClassNameWithGeneric() {
-        if (generics == null) {
+        if (generics == null && wildcard == null && arrayDimensions == 0) {
             return super.getName();
         }
-        return String.format("%s%s%s%s", super.getName(), LESS_THAN, generics.values().stream().map(
-                type -> type instanceof ClassType ? ((ClassType) type).getClassNameWithGeneric() : (String) type).
-                collect(
-                        Collectors.joining(COMMA)),
-                MORE_THAN);
+        var name = classNameWithGeneric;
+        if (name == null) {
+            name = generics == null
+                    ? super.getName()
+                    : super.getName() + LESS_THAN + generics.values().stream().map(
+                            type -> type instanceof ClassType
+                                    ? ((ClassType) type).getClassNameWithGeneric()
+                                    : (String) type)
+                            .collect(Collectors.joining(COMMA)) + MORE_THAN;
+            name = decorate(name);
+            classNameWithGeneric = name;
+        }
+        return name;
     }
 
     /**
+     * Adds the wildcard bound before a name and the array brackets after it
      *
-     * @return
+     * @param nameWithGenerics the name of the class, with its generics
+     * @return the decorated name
+     */
+    String decorate(String nameWithGenerics) {
+        if (wildcard == null && arrayDimensions == 0) {
+            return nameWithGenerics;
+        }
+        var decorated = new StringBuilder();
+        if (wildcard != null) {
+            decorated.append(wildcard.getPrefix());
+        }
+        decorated.append(nameWithGenerics);
+        for (int i = varargs ? 1 : 0; i < arrayDimensions; i++) {
+            decorated.append(ARRAY);
+        }
+        if (varargs) {
+            decorated.append(VARARGS);
+        }
+        return decorated.toString();
+    }
+
+    /**
+     *
+     * @return the bound when the class is a wildcard type argument, otherwise {@code null}
+     */
+    public Wildcard getWildcard() {
+        return wildcard;
+    }
+
+    /**
+     *
+     * @return number of array dimensions, including the varargs one
+     */
+    public int getArrayDimensions() {
+        return arrayDimensions;
+    }
+
+    /**
+     *
+     * @return {@code true} if the last array dimension is written as varargs
+     */
+    public boolean isVarargs() {
+        return varargs;
+    }
+
+    /**
+     *
+     * @return the generics, in declaration order, or {@code null} if the class has none. The map can't be modified.
      */
     public Map<String, Object> getGenerics() {
         return generics;
@@ -109,4 +236,46 @@ public class ClassType extends JavaType {
         return getClassNameWithGeneric();
     }
 
+    /**
+     * A class type can't be modified, its instances are shared through the {@link ClassTypePool} and changing the name
+     * of one would change every type that uses it.
+     *
+     * @param name
+     * @throws UnsupportedOperationException always
+     * @deprecated class types are immutable, create another one with {@link ClassTypeBuilder}
+     */
+    @Deprecated
+    @Override
+    public void setName(String name) {
+        throw new UnsupportedOperationException("ClassType is immutable, create another one with ClassTypeBuilder");
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ClassType)) {
+            return false;
+        }
+        var other = (ClassType) obj;
+        return hash == other.hash
+                && Objects.equals(packageName, other.packageName)
+                && Objects.equals(getName(), other.getName())
+                && Objects.equals(genericEntries, other.genericEntries)
+                && wildcard == other.wildcard
+                && arrayDimensions == other.arrayDimensions
+                && varargs == other.varargs;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return getFullClassName();
+    }
+
 }
@@ -15,24 +15,30 @@
  */
 package com.jgencode.gen.type;
 
-import com.jgencode.gen.util.ClassUtil;
-import com.jgencode.gen.util.Constants;
-
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 
-import static com.jgencode.gen.util.Constants.*;
-
 /**
  * @author Diego Silva diego.silva at apuntesdejava.com
  */
 public class ClassTypeBuilder {
 
+    /**
+     * Generic classes that always take their JDK package when the name is not qualified, even if another package was
+     * assigned, as the builder has always done for them
+     */
+    private static final Map<String, String> JDK_GENERIC_CLASSES = Map.of("List", "java.util", "Optional",
+            "java.util", "UUID", "java.util", "Stream", "java.util.stream", "LocalDate", "java.time",
+            "LocalDateTime", "java.time");
+
     private String packageName;
     private String className;
     private final Map<String, Object> generics = new LinkedHashMap<>();
+    private ClassType.Wildcard wildcard;
+    private int arrayDimensions;
+    private boolean varargs;
 
     /**
      *
@@ -53,31 +59,68 @@ public class ClassTypeBuilder {
     }
 
     /**
+     * Name of the class. When it has generics, array brackets or varargs it is parsed with {@link TypeParser}; the
+     * unqualified names of the generics take the package assigned before this method is called. The unqualified
+     * {@code List}, {@code Optional}, {@code UUID}, {@code Stream}, {@code LocalDate} and {@code LocalDateTime} always
+     * take their JDK package; any other generic class without a package, such as {@code Supplier<T>}, takes its
+     * package from the {@link TypeRegistry}.
      *
      * @param className
      * @return
      */
     public ClassTypeBuilder className(String className) {
-        if (StringUtils.contains(className, LESS_THAN) && StringUtils.endsWith(className, MORE_THAN)) {
-            String generic = StringUtils.substringBetween(className, LESS_THAN, MORE_THAN);
-            var generics = generic.split(COMMA);
-            char key = 'T';
-            for (String g : generics) {
-                addGeneric(String.valueOf(key++), ClassTypeBuilder.newBuilder()
-                        .className(g)
-                        .packageName(packageName)
-                        .build());
-            }
-            this.className = StringUtils.substringBefore(className, LESS_THAN);
-            if (Constants.GENERAL_CLASSES.containsKey(this.className)) {
-                packageName = ClassUtil.removeClassFromPackage(GENERAL_CLASSES.get(this.className), this.className);
-            }
-        } else {
+        if (!StringUtils.containsAny(className, '<', '[') && !StringUtils.contains(className, "...")) {
             this.className = className;
+            return this;
+        }
+        var parsed = TypeParser.parse(className, packageName);
+        this.className = parsed.getClassName();
+        this.packageName = parsed.getPackageName();
+        this.arrayDimensions = parsed.getArrayDimensions();
+        this.varargs = parsed.isVarargs();
+        generics.clear();
+        if (parsed.getGenerics() != null) {
+            generics.putAll(parsed.getGenerics());
+            var qualified = StringUtils.contains(StringUtils.substringBefore(className, "<"), '.');
+            if (!qualified && JDK_GENERIC_CLASSES.containsKey(this.className)) {
+                packageName = JDK_GENERIC_CLASSES.get(this.className);
+            } else if (StringUtils.isBlank(packageName)) {
+                packageName = TypeRegistry.getDefault().findWellKnownPackage(this.className);
+            }
         }
         return this;
     }
 
+    /**
+     *
+     * @param arrayDimensions number of array dimensions, including the varargs one
+     * @return
+     */
+    public ClassTypeBuilder arrayDimensions(int arrayDimensions) {
+        this.arrayDimensions = arrayDimensions;
+        return this;
+    }
+
+    /**
+     *
+     * @param varargs {@code true} to write the last array dimension as varargs
+     * @return
+     */
+    public ClassTypeBuilder varargs(boolean varargs) {
+        this.varargs = varargs;
+        return this;
+    }
+
+    /**
+     *
+     * @param wildcard bound of the class when it is a wildcard type argument
+     * @return
+     */
+    public ClassTypeBuilder wildcard(ClassType.Wildcard wildcard) {
+        this.wildcard = wildcard;
+        return this;
+    }
+
     /**
      *
      * @param key
@@ -94,10 +137,8 @@ public class ClassTypeBuilder {
      * @return
      */
     public ClassType build() {
-        var classType = new ClassType(packageName, className);
-        if (!generics.isEmpty()) {
-            classType.generics = generics;
-        }
-        return classType;
+        var dimensions = varargs ? Math.max(1, arrayDimensions) : arrayDimensions;
+        return ClassTypePool.intern(
+                new ClassType(packageName, className, generics, wildcard, dimensions, varargs));
     }
 }
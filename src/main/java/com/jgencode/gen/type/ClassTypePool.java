@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.type;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonical instances of the class types. Every {@link ClassType} built by {@link ClassTypeBuilder} goes through this
+ * pool, so the equal types of a generation share one instance, with its names computed once. The pool only holds weak
+ * references, a class type that is no longer used by any definition is removed by the garbage collector, so a long
+ * running process doesn't keep every type it ever generated. The pool can be used from many threads: a lookup of a
+ * type already in the pool never takes a lock.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public final class ClassTypePool {
+
+    private static final ConcurrentMap<WeakKey, WeakKey> POOL = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ClassType> COLLECTED = new ReferenceQueue<>();
+
+    private ClassTypePool() {
+    }
+
+    /**
+     * Returns the canonical instance of a class type, adding it to the pool if it is not there yet
+     *
+     * @param classType the class type
+     * @return the canonical instance equal to the class type
+     */
+    public static ClassType intern(ClassType classType) {
+        expungeCollected();
+        var key = new WeakKey(classType, COLLECTED);
+        while (true) {
+            var existing = POOL.get(key);
+            if (existing == null) {
+                existing = POOL.putIfAbsent(key, key);
+                if (existing == null) {
+                    return classType;
+                }
+            }
+            var canonical = existing.get();
+            if (canonical != null) {
+                return canonical;
+            }
+            // collected after it was found, a cleared key no longer matches any other key
+            POOL.remove(existing, existing);
+        }
+    }
+
+    /**
+     *
+     * @return number of class types in the pool, including the ones not yet removed by the garbage collector
+     */
+    public static int size() {
+        expungeCollected();
+        return POOL.size();
+    }
+
+    /**
+     * Removes every class type from the pool. The instances already in use are still valid, they are just no longer
+     * canonical.
+     */
+    public static void clear() {
+        POOL.clear();
+        expungeCollected();
+    }
+
+    private static void expungeCollected() {
+        for (var reference = COLLECTED.poll(); reference != null; reference = COLLECTED.poll()) {
+            POOL.remove(reference, reference);
+        }
+    }
+
+    /**
+     * Weak reference to a class type that is equal to the references to equal class types, while they are not
+     * collected. A cleared reference is only equal to itself, so it can still be removed from the pool.
+     */
+    private static final class WeakKey extends WeakReference<ClassType> {
+
+        private final int hash;
+
+        private WeakKey(ClassType classType, ReferenceQueue<ClassType> queue) {
+            super(classType, queue);
+            this.hash = classType.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof WeakKey)) {
+                return false;
+            }
+            var classType = get();
+            return classType != null && classType.equals(((WeakKey) obj).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
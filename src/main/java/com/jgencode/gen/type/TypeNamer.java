@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.type;
+
+import java.util.stream.Collectors;
+
+import static com.jgencode.gen.util.Constants.COMMA;
+import static com.jgencode.gen.util.Constants.LESS_THAN;
+import static com.jgencode.gen.util.Constants.MORE_THAN;
+
+/**
+ * Decides how a class is named in the source code: by its simple name or by its fully qualified name
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+@FunctionalInterface
+public interface TypeNamer {
+
+    /**
+     * Names every class by the name it was created with
+     */
+    TypeNamer SIMPLE_NAME = ClassType::getClassName;
+
+    /**
+     *
+     * @param classType the class
+     * @return the name of the class in the source code, without its generics
+     */
+    String name(ClassType classType);
+
+    /**
+     *
+     * @param classType the class
+     * @return the name of the class in the source code, followed by its generics
+     */
+    default String nameWithGenerics(ClassType classType) {
+        if (classType.getGenerics() == null) {
+            return classType.decorate(name(classType));
+        }
+        return classType.decorate(name(classType) + LESS_THAN + classType.getGenerics().values().stream()
+                .map(type -> type instanceof ClassType ? nameWithGenerics((ClassType) type) : (String) type)
+                .collect(Collectors.joining(COMMA)) + MORE_THAN);
+    }
+
+    /**
+     *
+     * @param javaType a class or a native type
+     * @return the name of the type in the source code, with its generics
+     */
+    default String typeName(JavaType javaType) {
+        if (javaType instanceof ClassType) {
+            return nameWithGenerics((ClassType) javaType);
+        }
+        return javaType.getFullName();
+    }
+}
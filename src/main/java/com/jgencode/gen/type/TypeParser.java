@@ -0,0 +1,254 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.type;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.jgencode.gen.util.Constants.PERIOD;
+
+/**
+ * Parses type expressions such as {@code Map<String, List<Long>>}, {@code List<? extends Number>},
+ * {@code byte[][]} or {@code String...} into interned {@link ClassType} trees.
+ * <p>
+ * A qualified name is split at its last period into package and class name. Names without package take the default
+ * package given to {@link #parse(String, String)}, except primitives, their wrappers and the {@code java.lang} classes
+ * known by the {@link TypeRegistry}. The parsed expressions are kept in a bounded cache that can be used from many
+ * threads.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public final class TypeParser {
+
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final String NO_PACKAGE = "";
+    private static final String UNBOUNDED_WILDCARD = "?";
+
+    private static final ConcurrentMap<String, ConcurrentMap<String, ClassType>> CACHE = new ConcurrentHashMap<>();
+    private static final AtomicInteger CACHE_SIZE = new AtomicInteger();
+
+    private TypeParser() {
+    }
+
+    /**
+     * Parses a type expression whose unqualified names have no package
+     *
+     * @param expression the type expression
+     * @return the class type
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public static ClassType parse(String expression) {
+        return parse(expression, null);
+    }
+
+    /**
+     * Parses a type expression
+     *
+     * @param expression the type expression
+     * @param defaultPackage package of the unqualified names, it can be {@code null}
+     * @return the class type
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public static ClassType parse(String expression, String defaultPackage) {
+        var packageKey = defaultPackage == null ? NO_PACKAGE : defaultPackage;
+        var byExpression = CACHE.get(packageKey);
+        if (byExpression != null) {
+            var cached = byExpression.get(expression);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        var classType = new Parser(expression, defaultPackage).parse();
+        if (CACHE_SIZE.incrementAndGet() > MAX_CACHE_SIZE) {
+            // a new generation of the cache, the types themselves stay in the ClassTypePool
+            CACHE.clear();
+            CACHE_SIZE.set(1);
+        }
+        CACHE.computeIfAbsent(packageKey, key -> new ConcurrentHashMap<>()).put(expression, classType);
+        return classType;
+    }
+
+    /**
+     *
+     * @return number of expressions in the cache
+     */
+    public static int cacheSize() {
+        return CACHE.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static class Parser {
+
+        private final String expression;
+        private final String defaultPackage;
+        private int position;
+
+        private Parser(String expression, String defaultPackage) {
+            if (StringUtils.isBlank(expression)) {
+                throw new IllegalArgumentException("empty type expression");
+            }
+            this.expression = expression;
+            this.defaultPackage = defaultPackage;
+        }
+
+        private ClassType parse() {
+            var classType = parseType(null);
+            skipSpaces();
+            if (position < expression.length()) {
+                throw error("unexpected '" + expression.charAt(position) + "'");
+            }
+            return classType;
+        }
+
+        private ClassType parseType(ClassType.Wildcard wildcard) {
+            skipSpaces();
+            var name = parseName();
+            Map<String, Object> generics = null;
+            skipSpaces();
+            if (consume('<')) {
+                generics = new LinkedHashMap<>();
+                char key = 'T';
+                do {
+                    generics.put(String.valueOf(key++), parseArgument());
+                    skipSpaces();
+                } while (consume(','));
+                expect('>');
+            }
+            var arrayDimensions = 0;
+            var varargs = false;
+            while (true) {
+                skipSpaces();
+                if (consume('[')) {
+                    skipSpaces();
+                    expect(']');
+                    arrayDimensions++;
+                } else if (expression.startsWith("...", position)) {
+                    position += 3;
+                    arrayDimensions++;
+                    varargs = true;
+                    break;
+                } else {
+                    break;
+                }
+            }
+            return createClassType(name, generics, wildcard, arrayDimensions, varargs);
+        }
+
+        private Object parseArgument() {
+            skipSpaces();
+            var start = position;
+            Object argument;
+            if (consume('?')) {
+                skipSpaces();
+                if (consumeKeyword("extends")) {
+                    argument = parseType(ClassType.Wildcard.EXTENDS);
+                } else if (consumeKeyword("super")) {
+                    argument = parseType(ClassType.Wildcard.SUPER);
+                } else {
+                    argument = UNBOUNDED_WILDCARD;
+                }
+            } else {
+                argument = parseType(null);
+            }
+            if (argument instanceof ClassType && ((ClassType) argument).isVarargs()) {
+                position = start;
+                throw error("varargs are only allowed at the end of the type");
+            }
+            return argument;
+        }
+
+        private ClassType createClassType(String name, Map<String, Object> generics, ClassType.Wildcard wildcard,
+                int arrayDimensions, boolean varargs) {
+            String packageName;
+            String className;
+            var registry = TypeRegistry.getDefault();
+            if (registry.isPrimitive(name) || registry.isNative(name) || registry.isJavaLang(name)) {
+                packageName = null;
+                className = name;
+            } else if (name.contains(PERIOD)) {
+                packageName = StringUtils.substringBeforeLast(name, PERIOD);
+                className = StringUtils.substringAfterLast(name, PERIOD);
+            } else {
+                packageName = defaultPackage;
+                className = name;
+            }
+            return ClassTypePool.intern(
+                    new ClassType(packageName, className, generics, wildcard, arrayDimensions, varargs));
+        }
+
+        private String parseName() {
+            var start = position;
+            while (position < expression.length()) {
+                var c = expression.charAt(position);
+                if (position == start ? !Character.isJavaIdentifierStart(c) : !isNamePart(c)) {
+                    break;
+                }
+                position++;
+            }
+            if (start == position) {
+                throw error("a type name was expected");
+            }
+            if (expression.charAt(position - 1) == '.') {
+                throw error("a name can't end with a period");
+            }
+            return expression.substring(start, position);
+        }
+
+        private boolean isNamePart(char c) {
+            // a period followed by another one starts the varargs
+            return Character.isJavaIdentifierPart(c)
+                    || (c == '.' && !expression.startsWith("..", position));
+        }
+
+        private boolean consumeKeyword(String keyword) {
+            var end = position + keyword.length();
+            if (expression.startsWith(keyword, position)
+                    && (end == expression.length() || !Character.isJavaIdentifierPart(expression.charAt(end)))) {
+                position = end;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean consume(char c) {
+            if (position < expression.length() && expression.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw error("'" + c + "' was expected");
+            }
+        }
+
+        private void skipSpaces() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " of '" + expression + "'");
+        }
+    }
+}
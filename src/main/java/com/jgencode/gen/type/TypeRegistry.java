@@ -0,0 +1,390 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.type;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.module.ModuleDescriptor;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.jgencode.gen.util.Constants.PERIOD;
+
+/**
+ * Resolves simple class names to their packages with hash lookups.
+ * <p>
+ * The registry knows the primitives and the {@code java.lang} classes from the start. The public classes of
+ * {@code java.base}, and of any other module added with {@link #indexModule(String)}, are indexed from the
+ * {@code jrt:/} file system on the first lookup that needs them, and kept in memory. When a cache directory is set
+ * with {@link #cacheDirectory(Path)} the index of each module is also saved there, so the next runs on the same JDK
+ * only read a small text file. The names registered by the user take precedence over the JDK ones.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class TypeRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TypeRegistry.class);
+
+    private static final String JAVA_LANG = "java.lang";
+    private static final String JAVA_BASE = "java.base";
+    private static final String AMBIGUOUS = "";
+    private static final String CACHE_HEADER = "jgencode-type-index 1";
+    private static final int ACC_PUBLIC = 0x0001;
+
+    private static final Set<String> PRIMITIVES = Set.of("boolean", "byte", "char", "short", "int", "long",
+            "float", "double", "void");
+
+    private static final Set<String> NATIVE_TYPES = Set.of("byte", "Byte", "short", "Short", "int", "Integer",
+            "long", "Long", "float", "Float", "double", "Double", "boolean", "Boolean", "char", "Character", "String");
+
+    private static final Set<String> JAVA_LANG_CLASSES = Set.of(
+            "AbstractMethodError", "Appendable", "ArithmeticException", "ArrayIndexOutOfBoundsException",
+            "ArrayStoreException", "AssertionError", "AutoCloseable", "Boolean", "BootstrapMethodError", "Byte",
+            "CharSequence", "Character", "Class", "ClassCastException", "ClassCircularityError",
+            "ClassFormatError", "ClassLoader", "ClassNotFoundException", "ClassValue",
+            "CloneNotSupportedException", "Cloneable", "Comparable", "Compiler", "Deprecated", "Double", "Enum",
+            "EnumConstantNotPresentException", "Error", "Exception", "ExceptionInInitializerError", "Float",
+            "FunctionalInterface", "IllegalAccessError", "IllegalAccessException", "IllegalArgumentException",
+            "IllegalCallerException", "IllegalMonitorStateException", "IllegalStateException",
+            "IllegalThreadStateException", "IncompatibleClassChangeError", "IndexOutOfBoundsException",
+            "InheritableThreadLocal", "InstantiationError", "InstantiationException", "Integer",
+            "InternalError", "InterruptedException", "Iterable", "LayerInstantiationException", "LinkageError",
+            "Long", "Math", "Module", "ModuleLayer", "NegativeArraySizeException", "NoClassDefFoundError",
+            "NoSuchFieldError", "NoSuchFieldException", "NoSuchMethodError", "NoSuchMethodException",
+            "NullPointerException", "Number", "NumberFormatException", "Object", "OutOfMemoryError", "Override",
+            "Package", "Process", "ProcessBuilder", "ProcessHandle", "Readable", "Record",
+            "ReflectiveOperationException", "Runnable", "Runtime", "RuntimeException", "RuntimePermission",
+            "SafeVarargs", "SecurityException", "SecurityManager", "Short", "StackOverflowError",
+            "StackTraceElement", "StackWalker", "StrictMath", "String", "StringBuffer", "StringBuilder",
+            "StringIndexOutOfBoundsException", "SuppressWarnings", "System", "Thread", "ThreadDeath",
+            "ThreadGroup", "ThreadLocal", "Throwable", "TypeNotPresentException", "UnknownError",
+            "UnsatisfiedLinkError", "UnsupportedClassVersionError", "UnsupportedOperationException",
+            "VerifyError", "VirtualMachineError", "Void");
+
+    /**
+     * Packages that win when a simple name is in more than one package of the indexed modules, in order of preference
+     */
+    private static final List<String> PREFERRED_PACKAGES = List.of(JAVA_LANG, "java.util", "java.util.function",
+            "java.util.stream", "java.time", "java.io", "java.nio.file", "java.math", "java.net");
+
+    /**
+     * Packages whose classes are taken as well known, see {@link #findWellKnownPackage(String)}
+     */
+    private static final Set<String> WELL_KNOWN_PACKAGES = Set.of(JAVA_LANG, "java.util", "java.util.function",
+            "java.util.stream", "java.time", "java.math");
+
+    private static final TypeRegistry DEFAULT = new TypeRegistry();
+
+    private final Map<String, String> registeredPackages = new ConcurrentHashMap<>();
+    private final Set<String> modules = new LinkedHashSet<>(List.of(JAVA_BASE));
+    private volatile Map<String, String> modulePackages;
+    private volatile Path cacheDirectory;
+
+    /**
+     * The registry shared by the builders of the library
+     *
+     * @return the default registry
+     */
+    public static TypeRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     *
+     * @param name a type name
+     * @return {@code true} if it is a primitive type or {@code void}
+     */
+    public boolean isPrimitive(String name) {
+        return PRIMITIVES.contains(name);
+    }
+
+    /**
+     *
+     * @param name a type name
+     * @return {@code true} if it is a primitive, a primitive wrapper or {@code String}
+     */
+    public boolean isNative(String name) {
+        return NATIVE_TYPES.contains(name);
+    }
+
+    /**
+     * Whether a simple name is one of the {@code java.lang} classes the registry knows from the start. It never
+     * indexes the modules.
+     *
+     * @param simpleName a simple class name
+     * @return {@code true} if it is a class of {@code java.lang}, which never needs an import
+     */
+    public boolean isJavaLang(String simpleName) {
+        return JAVA_LANG_CLASSES.contains(simpleName);
+    }
+
+    /**
+     * Package of a simple class name. The registered names are looked up first, then {@code java.lang} and then the
+     * indexed modules. A name that is in more than one package of the modules, none of them preferred, is not
+     * resolved.
+     *
+     * @param simpleName the simple class name
+     * @return the package, or {@code null} if the name is unknown or ambiguous
+     */
+    public String findPackage(String simpleName) {
+        var packageName = registeredPackages.get(simpleName);
+        if (packageName != null) {
+            return packageName;
+        }
+        if (JAVA_LANG_CLASSES.contains(simpleName)) {
+            return JAVA_LANG;
+        }
+        packageName = getModulePackages().get(simpleName);
+        return packageName == null || packageName.equals(AMBIGUOUS) ? null : packageName;
+    }
+
+    /**
+     * Package of a simple class name, only if it was registered or it belongs to a package whose classes are used as
+     * if they were imported by default: {@code java.lang}, {@code java.util}, {@code java.util.function},
+     * {@code java.util.stream}, {@code java.time} and {@code java.math}. It is used to complete the package of
+     * generic types such as {@code List<T>} or {@code Optional<T>}.
+     *
+     * @param simpleName the simple class name
+     * @return the package, or {@code null}
+     */
+    public String findWellKnownPackage(String simpleName) {
+        var packageName = registeredPackages.get(simpleName);
+        if (packageName != null) {
+            return packageName;
+        }
+        packageName = findPackage(simpleName);
+        return packageName != null && WELL_KNOWN_PACKAGES.contains(packageName) ? packageName : null;
+    }
+
+    /**
+     * Registers a class by its fully qualified name
+     *
+     * @param qualifiedName the fully qualified name
+     * @return the same registry
+     */
+    public TypeRegistry register(String qualifiedName) {
+        var index = qualifiedName.lastIndexOf(PERIOD);
+        if (index <= 0) {
+            throw new IllegalArgumentException("a fully qualified name was expected: " + qualifiedName);
+        }
+        return register(qualifiedName.substring(0, index), qualifiedName.substring(index + 1));
+    }
+
+    /**
+     * Registers the classes of a package
+     *
+     * @param packageName the package
+     * @param simpleNames simple names of the classes
+     * @return the same registry
+     */
+    public TypeRegistry register(String packageName, String... simpleNames) {
+        for (String simpleName : simpleNames) {
+            registeredPackages.put(simpleName, packageName);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a module to the index, for example {@code java.sql}. It is indexed on the next lookup.
+     *
+     * @param moduleName the module name
+     * @return the same registry
+     */
+    public synchronized TypeRegistry indexModule(String moduleName) {
+        if (modules.add(moduleName)) {
+            modulePackages = null;
+        }
+        return this;
+    }
+
+    /**
+     * Directory where the index of every module is saved and read on the next runs. By default there is none and the
+     * index is only kept in memory.
+     *
+     * @param cacheDirectory the directory, {@code null} to not save the index
+     * @return the same registry
+     */
+    public TypeRegistry cacheDirectory(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        return this;
+    }
+
+    private Map<String, String> getModulePackages() {
+        var packages = modulePackages;
+        if (packages == null) {
+            synchronized (this) {
+                packages = modulePackages;
+                if (packages == null) {
+                    packages = indexModules();
+                    modulePackages = packages;
+                }
+            }
+        }
+        return packages;
+    }
+
+    private Map<String, String> indexModules() {
+        var packages = new HashMap<String, String>();
+        for (String module : modules) {
+            for (String qualifiedName : loadModuleClasses(module)) {
+                var index = qualifiedName.lastIndexOf('.');
+                packages.merge(qualifiedName.substring(index + 1), qualifiedName.substring(0, index),
+                        TypeRegistry::choosePackage);
+            }
+        }
+        return packages;
+    }
+
+    private static String choosePackage(String packageName, String otherPackageName) {
+        var preference = PREFERRED_PACKAGES.indexOf(packageName);
+        var otherPreference = PREFERRED_PACKAGES.indexOf(otherPackageName);
+        if (preference < 0 && otherPreference < 0) {
+            return AMBIGUOUS;
+        }
+        if (preference < 0) {
+            return otherPackageName;
+        }
+        if (otherPreference < 0) {
+            return packageName;
+        }
+        return preference < otherPreference ? packageName : otherPackageName;
+    }
+
+    private List<String> loadModuleClasses(String module) {
+        var cacheFile = cacheDirectory == null ? null : cacheDirectory.resolve(
+                module + "-" + Runtime.version().toString().replaceAll("[^A-Za-z0-9.+-]", "_") + ".idx");
+        if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+            try {
+                var lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+                if (!lines.isEmpty() && lines.get(0).equals(CACHE_HEADER)) {
+                    return lines.subList(1, lines.size());
+                }
+            } catch (IOException ex) {
+                LOGGER.debug("the type index {} can't be read", cacheFile, ex);
+            }
+        }
+        List<String> classes;
+        try {
+            classes = scanModule(module);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("the module {} can't be indexed", module, ex);
+            return List.of();
+        }
+        if (cacheFile != null) {
+            saveIndex(cacheFile, classes);
+        }
+        return classes;
+    }
+
+    private static void saveIndex(Path cacheFile, List<String> classes) {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            var lines = new ArrayList<String>(classes.size() + 1);
+            lines.add(CACHE_HEADER);
+            lines.addAll(classes);
+            var tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+            Files.write(tempFile, lines, StandardCharsets.UTF_8);
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            LOGGER.debug("the type index {} can't be saved", cacheFile, ex);
+        }
+    }
+
+    private static List<String> scanModule(String module) throws IOException {
+        LOGGER.debug("indexing the classes of the module {}", module);
+        var exportedPackages = ModuleLayer.boot().findModule(module)
+                .map(found -> found.getDescriptor().exports().stream()
+                .filter(export -> !export.isQualified())
+                .map(ModuleDescriptor.Exports::source)
+                .collect(Collectors.toSet()))
+                .orElseThrow(() -> new IllegalArgumentException("unknown module " + module));
+        FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+        var root = jrt.getPath("modules", module);
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(path -> isTopLevelClass(path.getFileName().toString()))
+                    .filter(path -> exportedPackages.contains(packageOf(root.relativize(path.getParent()))))
+                    .filter(TypeRegistry::isPublic)
+                    .map(path -> packageOf(root.relativize(path.getParent())) + PERIOD
+                    + path.getFileName().toString().replace(".class", ""))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isTopLevelClass(String fileName) {
+        return fileName.endsWith(".class") && fileName.indexOf('$') < 0
+                && !fileName.equals("module-info.class") && !fileName.equals("package-info.class");
+    }
+
+    private static String packageOf(Path relativeDirectory) {
+        return relativeDirectory.toString().replace('/', '.');
+    }
+
+    /**
+     * Reads the access flags of a class file, which follow its constant pool
+     */
+    private static boolean isPublic(Path classFile) {
+        try (InputStream in = Files.newInputStream(classFile); var data = new DataInputStream(in)) {
+            data.skipNBytes(8);
+            var constantPoolCount = data.readUnsignedShort();
+            for (int i = 1; i < constantPoolCount; i++) {
+                var tag = data.readUnsignedByte();
+                switch (tag) {
+                    case 1:
+                        data.skipNBytes(data.readUnsignedShort());
+                        break;
+                    case 7, 8, 16, 19, 20:
+                        data.skipNBytes(2);
+                        break;
+                    case 15:
+                        data.skipNBytes(3);
+                        break;
+                    case 3, 4, 9, 10, 11, 12, 17, 18:
+                        data.skipNBytes(4);
+                        break;
+                    case 5, 6:
+                        data.skipNBytes(8);
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("unknown constant pool tag " + tag + " in " + classFile);
+                }
+            }
+            return (data.readUnsignedShort() & ACC_PUBLIC) != 0;
+        } catch (IOException ex) {
+            LOGGER.debug("the class file {} can't be read", classFile, ex);
+            return false;
+        }
+    }
+}
@@ -15,7 +15,7 @@
  */
 package com.jgencode.gen.util;
 
-import org.apache.commons.lang3.ArrayUtils;
+import com.jgencode.gen.type.TypeRegistry;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -45,7 +45,7 @@ public class ClassUtil {
      * @return
      */
     public static boolean isNative(String className) {
-        return (ArrayUtils.contains(NATIVE_TYPES, className));
+        return TypeRegistry.getDefault().isNative(className);
     }
 
     /**
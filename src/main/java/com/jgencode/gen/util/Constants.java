@@ -53,6 +53,14 @@ public class Constants {
      *
      */
     public static final String CLASSNAME_PARAMETER = "{_CLASSNAME_}";
+    /**
+     * Start of a slot of a {@link com.jgencode.gen.ClassTemplate}, followed by the slot name and {@link #SLOT_SUFFIX}
+     */
+    public static final String SLOT_PREFIX = "$_SLOT_";
+    /**
+     * End of a slot of a {@link com.jgencode.gen.ClassTemplate}
+     */
+    public static final String SLOT_SUFFIX = "_$";
     /**
      * "{@code \u003c}" character
      */
@@ -71,7 +79,10 @@ public class Constants {
     public static final String COMMA_SPACE = ", ";
     /**
      * Class map with their respective complete package declaration
+     *
+     * @deprecated the packages of the JDK classes are resolved by {@link com.jgencode.gen.type.TypeRegistry}
      */
+    @Deprecated
     public static final Map<String, String> GENERAL_CLASSES = Map.of("UUID", UUID.class.getName(), "LocalDate",
             LocalDate.class.getName(), "LocalDateTime", LocalDateTime.class.getName(), "Optional", Optional.class.
             getName(),
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.util;
+
+import com.jgencode.gen.type.AnnotationType;
+import com.jgencode.gen.type.ClassType;
+import com.jgencode.gen.type.JavaType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+
+/**
+ * Accumulates the inputs of a definition into a {@link Fingerprint}. Every value is written with its length, so
+ * different sequences of values never produce the same digest input.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class FingerprintBuilder {
+
+    /**
+     * Changes whenever the rendering of the library changes, so old fingerprints are not trusted
+     */
+    private static final String RENDER_VERSION = "jgencode-render-7";
+
+    private static final byte NULL_MARK = 0;
+    private static final byte VALUE_MARK = 1;
+
+    private final MessageDigest digest;
+
+    private FingerprintBuilder() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+        add(RENDER_VERSION);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public static FingerprintBuilder newBuilder() {
+        return new FingerprintBuilder();
+    }
+
+    /**
+     *
+     * @param value
+     * @return
+     */
+    public FingerprintBuilder add(String value) {
+        if (value == null) {
+            digest.update(NULL_MARK);
+            return this;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(VALUE_MARK);
+        addInt(bytes.length);
+        digest.update(bytes);
+        return this;
+    }
+
+    /**
+     *
+     * @param value
+     * @return
+     */
+    public FingerprintBuilder add(boolean value) {
+        digest.update(value ? VALUE_MARK : NULL_MARK);
+        return this;
+    }
+
+    /**
+     *
+     * @param value
+     * @return
+     */
+    public FingerprintBuilder add(int value) {
+        addInt(value);
+        return this;
+    }
+
+    /**
+     *
+     * @param values
+     * @return
+     */
+    public FingerprintBuilder addAll(Collection<String> values) {
+        if (values == null) {
+            digest.update(NULL_MARK);
+            return this;
+        }
+        digest.update(VALUE_MARK);
+        addInt(values.size());
+        values.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Adds a type, including the package and the generic types it refers to
+     *
+     * @param javaType the type
+     * @return the same builder
+     */
+    public FingerprintBuilder add(JavaType javaType) {
+        if (javaType == null) {
+            digest.update(NULL_MARK);
+            return this;
+        }
+        add(javaType.getFullName());
+        if (javaType instanceof ClassType) {
+            var classType = (ClassType) javaType;
+            add(classType.getFullClassName());
+            add(classType.getClassName());
+            addGenerics(classType);
+        }
+        return this;
+    }
+
+    /**
+     * Adds an annotation, including its attributes
+     *
+     * @param annotationType the annotation
+     * @return the same builder
+     */
+    public FingerprintBuilder add(AnnotationType annotationType) {
+        add(annotationType.getClassType());
+        annotationType.getAttributes().forEach((key, value) -> {
+            add(key);
+            if (value instanceof JavaType) {
+                add((JavaType) value);
+            } else {
+                add(String.valueOf(value));
+            }
+        });
+        return this;
+    }
+
+    private void addGenerics(ClassType classType) {
+        if (classType.getGenerics() == null) {
+            digest.update(NULL_MARK);
+            return;
+        }
+        digest.update(VALUE_MARK);
+        addInt(classType.getGenerics().size());
+        classType.getGenerics().forEach((key, value) -> {
+            add(key);
+            if (value instanceof JavaType) {
+                add((JavaType) value);
+            } else {
+                add(String.valueOf(value));
+            }
+        });
+    }
+
+    private void addInt(int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public Fingerprint build() {
+        var hash = ByteBuffer.wrap(digest.digest());
+        return new Fingerprint(hash.getLong(), hash.getLong());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.util;
+
+/**
+ * Indentation strings of every level, computed once. Prefixing a line takes the string of its level from a table
+ * instead of repeating the unit for every line.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public final class Indentation {
+
+    private static final int PRECOMPUTED_LEVELS = 16;
+
+    /**
+     * Four spaces by level
+     */
+    public static final Indentation DEFAULT = new Indentation("    ");
+
+    private final String unit;
+    private final String[] levels;
+
+    private Indentation(String unit) {
+        this.unit = unit;
+        this.levels = new String[PRECOMPUTED_LEVELS];
+        for (int level = 0; level < PRECOMPUTED_LEVELS; level++) {
+            levels[level] = unit.repeat(level);
+        }
+    }
+
+    /**
+     *
+     * @param unit the indentation of one level, such as spaces or a tab
+     * @return the indentation
+     */
+    public static Indentation of(String unit) {
+        return DEFAULT.unit.equals(unit) ? DEFAULT : new Indentation(unit);
+    }
+
+    /**
+     *
+     * @param spaces number of spaces of one level
+     * @return the indentation
+     */
+    public static Indentation ofSpaces(int spaces) {
+        if (spaces < 0) {
+            throw new IllegalArgumentException("negative indentation " + spaces);
+        }
+        return of(" ".repeat(spaces));
+    }
+
+    /**
+     *
+     * @return the indentation of one level
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     *
+     * @param level the indentation level, zero or more
+     * @return the indentation of the level
+     */
+    public String get(int level) {
+        return level < PRECOMPUTED_LEVELS ? levels[level] : unit.repeat(level);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof Indentation && unit.equals(((Indentation) obj).unit));
+    }
+
+    @Override
+    public int hashCode() {
+        return unit.hashCode();
+    }
+}
@@ -1,5 +1,6 @@
 package com.jgencode.gen.util;
 
+import com.jgencode.gen.ConstructorDefinitionBuilder;
 import com.jgencode.gen.MethodDefinitionBuilder;
 import com.jgencode.gen.ParameterDefinition;
 import com.jgencode.gen.type.AnnotationType;
@@ -27,7 +28,10 @@ public class MethodUtil {
      *
      * @param methods
      * @param classesToImport
+     * @deprecated the definitions collect their imports with an {@link com.jgencode.gen.ImportResolver}, use
+     * {@link com.jgencode.gen.ImportResolver#addMethods(Collection)}
      */
+    @Deprecated
     public static void importClassesFromMethods(Collection<MethodDefinitionBuilder.MethodDefinition> methods,
             Set<String> classesToImport) {
         LOGGER.debug("getting the classes that are used in the methods");
@@ -74,4 +78,56 @@ public class MethodUtil {
 
         });
     }
+
+    /**
+     * Adds the methods, with the types and annotations they use, to a fingerprint
+     *
+     * @param methods the methods, it can be {@code null}
+     * @param fingerprintBuilder the fingerprint builder
+     */
+    public static void addMethodsToFingerprint(Collection<MethodDefinitionBuilder.MethodDefinition> methods,
+            FingerprintBuilder fingerprintBuilder) {
+        if (methods == null) {
+            fingerprintBuilder.add(0);
+            return;
+        }
+        fingerprintBuilder.add(methods.size());
+        methods.forEach(method -> {
+            fingerprintBuilder.addAll(method.getSourceLines());
+            fingerprintBuilder.add(method.getReturnType());
+            method.getAnnotationTypes().forEach(fingerprintBuilder::add);
+            addParametersToFingerprint(method.getParameters(), fingerprintBuilder);
+            method.getCodeBlock().getTypes().forEach(fingerprintBuilder::add);
+        });
+    }
+
+    /**
+     * Adds the constructors, with the types and annotations they use, to a fingerprint
+     *
+     * @param constructors the constructors, it can be {@code null}
+     * @param fingerprintBuilder the fingerprint builder
+     */
+    public static void addConstructorsToFingerprint(
+            Collection<ConstructorDefinitionBuilder.ConstructorDefinition> constructors,
+            FingerprintBuilder fingerprintBuilder) {
+        if (constructors == null) {
+            fingerprintBuilder.add(0);
+            return;
+        }
+        fingerprintBuilder.add(constructors.size());
+        constructors.forEach(constructor -> {
+            fingerprintBuilder.addAll(constructor.getSourceLines());
+            addParametersToFingerprint(constructor.getParameters(), fingerprintBuilder);
+            constructor.getCodeBlock().getTypes().forEach(fingerprintBuilder::add);
+        });
+    }
+
+    private static void addParametersToFingerprint(Collection<ParameterDefinition> parameters,
+            FingerprintBuilder fingerprintBuilder) {
+        fingerprintBuilder.add(parameters.size());
+        parameters.forEach(parameter -> {
+            fingerprintBuilder.add(parameter.getParameterType());
+            parameter.getAnnotationTypes().forEach(fingerprintBuilder::add);
+        });
+    }
 }
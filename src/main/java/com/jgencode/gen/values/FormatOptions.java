@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.values;
+
+import com.jgencode.gen.util.Indentation;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.jgencode.gen.util.Constants.OPEN_BRACE;
+
+/**
+ * Immutable options of the layout of the source code: indentation, line separator, brace style and blank lines. They
+ * are given to every rendering, so generations with different styles can run at the same time.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public final class FormatOptions {
+
+    /**
+     * Four spaces, the line separator of the platform, braces at the end of the line and a blank line after every
+     * member
+     */
+    public static final FormatOptions DEFAULT = FormatOptionsBuilder.newBuilder().build();
+
+    private final Indentation indentation;
+    private final String lineSeparator;
+    private final BraceStyle braceStyle;
+    private final int blankLinesBetweenMembers;
+    private final boolean indentBlankLines;
+    private final int hash;
+
+    FormatOptions(Indentation indentation, String lineSeparator, BraceStyle braceStyle,
+            int blankLinesBetweenMembers, boolean indentBlankLines) {
+        this.indentation = indentation;
+        this.lineSeparator = lineSeparator;
+        this.braceStyle = braceStyle;
+        this.blankLinesBetweenMembers = blankLinesBetweenMembers;
+        this.indentBlankLines = indentBlankLines;
+        this.hash = Objects.hash(indentation, lineSeparator, braceStyle, blankLinesBetweenMembers, indentBlankLines);
+    }
+
+    /**
+     *
+     * @return the indentation of every level
+     */
+    public Indentation getIndentation() {
+        return indentation;
+    }
+
+    /**
+     *
+     * @return the line separator
+     */
+    public String getLineSeparator() {
+        return lineSeparator;
+    }
+
+    /**
+     *
+     * @return where the opening braces are written
+     */
+    public BraceStyle getBraceStyle() {
+        return braceStyle;
+    }
+
+    /**
+     *
+     * @return number of blank lines written after every field, accessor, constructor and method
+     */
+    public int getBlankLinesBetweenMembers() {
+        return blankLinesBetweenMembers;
+    }
+
+    /**
+     *
+     * @return {@code true} if the blank lines inside the body of a definition carry its indentation
+     */
+    public boolean isIndentBlankLines() {
+        return indentBlankLines;
+    }
+
+    /**
+     * Adds the lines of a declaration followed by its opening brace
+     *
+     * @param lines where the lines are added
+     * @param declaration the declaration, without the brace
+     */
+    public void addOpenBrace(List<String> lines, String declaration) {
+        if (braceStyle == BraceStyle.NEXT_LINE) {
+            lines.add(declaration.stripTrailing());
+            lines.add(OPEN_BRACE);
+        } else {
+            lines.add(declaration + OPEN_BRACE);
+        }
+    }
+
+    /**
+     * Adds the blank lines that follow a member
+     *
+     * @param lines where the lines are added
+     */
+    public void addBlankLines(List<String> lines) {
+        for (int i = 0; i < blankLinesBetweenMembers; i++) {
+            lines.add("");
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FormatOptions)) {
+            return false;
+        }
+        var other = (FormatOptions) obj;
+        return hash == other.hash
+                && blankLinesBetweenMembers == other.blankLinesBetweenMembers
+                && indentBlankLines == other.indentBlankLines
+                && braceStyle == other.braceStyle
+                && indentation.equals(other.indentation)
+                && lineSeparator.equals(other.lineSeparator);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.values;
+
+import com.jgencode.gen.util.Indentation;
+
+/**
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public class FormatOptionsBuilder {
+
+    private Indentation indentation = Indentation.DEFAULT;
+    private String lineSeparator = System.lineSeparator();
+    private BraceStyle braceStyle = BraceStyle.END_OF_LINE;
+    private int blankLinesBetweenMembers = 1;
+    private boolean indentBlankLines = true;
+
+    /**
+     *
+     * @return a builder with the default options
+     */
+    public static FormatOptionsBuilder newBuilder() {
+        return new FormatOptionsBuilder();
+    }
+
+    /**
+     * Indents every level with a number of spaces
+     *
+     * @param spaces spaces of one level, four by default
+     * @return this same builder
+     */
+    public FormatOptionsBuilder indentSpaces(int spaces) {
+        this.indentation = Indentation.ofSpaces(spaces);
+        return this;
+    }
+
+    /**
+     * Indents every level with a tab
+     *
+     * @return this same builder
+     */
+    public FormatOptionsBuilder indentTabs() {
+        this.indentation = Indentation.of("\t");
+        return this;
+    }
+
+    /**
+     *
+     * @param lineSeparator the line separator, the one of the platform by default
+     * @return this same builder
+     */
+    public FormatOptionsBuilder lineSeparator(String lineSeparator) {
+        if (lineSeparator == null || lineSeparator.isEmpty()) {
+            throw new IllegalArgumentException("empty line separator");
+        }
+        this.lineSeparator = lineSeparator;
+        return this;
+    }
+
+    /**
+     *
+     * @param braceStyle where the opening braces are written, at the end of the line by default
+     * @return this same builder
+     */
+    public FormatOptionsBuilder braceStyle(BraceStyle braceStyle) {
+        this.braceStyle = braceStyle;
+        return this;
+    }
+
+    /**
+     *
+     * @param blankLinesBetweenMembers blank lines after every member, one by default
+     * @return this same builder
+     */
+    public FormatOptionsBuilder blankLinesBetweenMembers(int blankLinesBetweenMembers) {
+        if (blankLinesBetweenMembers < 0) {
+            throw new IllegalArgumentException("negative blank lines " + blankLinesBetweenMembers);
+        }
+        this.blankLinesBetweenMembers = blankLinesBetweenMembers;
+        return this;
+    }
+
+    /**
+     *
+     * @param indentBlankLines whether the blank lines inside a definition carry its indentation, {@code true} by
+     * default
+     * @return this same builder
+     */
+    public FormatOptionsBuilder indentBlankLines(boolean indentBlankLines) {
+        this.indentBlankLines = indentBlankLines;
+        return this;
+    }
+
+    /**
+     *
+     * @return the options
+     */
+    public FormatOptions build() {
+        var options = new FormatOptions(indentation, lineSeparator, braceStyle, blankLinesBetweenMembers,
+                indentBlankLines);
+        return options.equals(FormatOptions.DEFAULT) ? FormatOptions.DEFAULT : options;
+    }
+}
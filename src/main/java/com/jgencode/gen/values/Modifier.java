@@ -18,6 +18,8 @@ package com.jgencode.gen.values;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 
 /**
@@ -26,15 +28,26 @@ import java.util.Set;
 public enum Modifier {
     PUBLIC, PRIVATE, PROTECTED, FINAL, ABSTRACT, STATIC;
     /**
-     *
+     * Iterated in declaration order, so the modifier that is rendered is the same in every run
      */
-    public static final Set<Modifier> ACCESS_MODIFIERS = Set.of(Modifier.PUBLIC, Modifier.PRIVATE, Modifier.PROTECTED);
+    public static final Set<Modifier> ACCESS_MODIFIERS = Collections.unmodifiableSet(EnumSet.of(Modifier.PUBLIC,
+            Modifier.PRIVATE, Modifier.PROTECTED));
     /**
-     *
+     * Iterated in declaration order, so the modifier that is rendered is the same in every run
      */
-    public static final Set<Modifier> METHOD_ACCESS_MODIFIERS = Set.of(Modifier.PUBLIC,
+    public static final Set<Modifier> METHOD_ACCESS_MODIFIERS = Collections.unmodifiableSet(EnumSet.of(Modifier.PUBLIC,
             Modifier.PRIVATE,
-            Modifier.PROTECTED, ABSTRACT, STATIC);
+            Modifier.PROTECTED, ABSTRACT, STATIC));
+
+    /**
+     * The modifiers in declaration order, whatever the order in which they were added
+     *
+     * @param modifiers the modifiers
+     * @return a new set with the same modifiers
+     */
+    public static Set<Modifier> inDeclarationOrder(Collection<Modifier> modifiers) {
+        return modifiers.isEmpty() ? EnumSet.noneOf(Modifier.class) : EnumSet.copyOf(modifiers);
+    }
 /**
  * 
  * @param modifiers
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.values;
+
+/**
+ * How a generated file is written when it already exists
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public enum WriteMode {
+    /**
+     * The file is always written
+     */
+    OVERWRITE,
+    /**
+     * The file is written only if its content changed, so its modification time is kept when it is identical
+     */
+    SKIP_UNCHANGED
+}
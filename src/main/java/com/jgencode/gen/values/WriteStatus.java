@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.values;
+
+/**
+ * Outcome of writing a generated file
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public enum WriteStatus {
+    /**
+     * The file was written
+     */
+    WRITTEN,
+    /**
+     * The file already had the same content and was not touched
+     */
+    UNCHANGED,
+    /**
+     * The inputs of the definition did not change since the last run, so it was neither rendered nor written
+     */
+    UP_TO_DATE
+}
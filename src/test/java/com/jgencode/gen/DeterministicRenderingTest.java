@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Renders the same models in JVMs with different identity hash code algorithms, and so with different iteration
+ * orders of the hash based collections, and checks that the source code and the fingerprints are always the same.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+class DeterministicRenderingTest {
+
+    /**
+     * The algorithms of {@code -XX:hashCode}: random, address based, constant, sequence, address and thread state
+     */
+    private static final int[] HASH_CODE_MODES = {0, 1, 2, 3, 4, 5};
+
+    @Test
+    void renderingIsIndependentOfHashCodes() throws Exception {
+        var expected = RenderedModels.render();
+        for (int hashCodeMode : HASH_CODE_MODES) {
+            assertEquals(expected, renderInNewJvm("-XX:hashCode=" + hashCodeMode),
+                    "rendering with -XX:hashCode=" + hashCodeMode);
+        }
+    }
+
+    @Test
+    void renderingIsRepeatable() {
+        assertEquals(RenderedModels.render(), RenderedModels.render());
+    }
+
+    private static String renderInNewJvm(String hashCodeOption) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-XX:+UnlockExperimentalVMOptions");
+        command.add(hashCodeOption);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(RenderedModels.class.getName());
+        var process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS), "the rendering JVM did not finish");
+        assertEquals(0, process.exitValue(), "exit value of the rendering JVM");
+        return output;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.output.OutputSink;
+import com.jgencode.gen.values.WriteStatus;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+class GenerationPipelineTest {
+
+    @Test
+    void errorInOneDefinitionFailsTheRun() {
+        OutputSink sink = (Definition definition) -> {
+            if (definition.getClassName().equals("C3")) {
+                throw new StackOverflowError("C3");
+            }
+            return WriteStatus.WRITTEN;
+        };
+        var pipeline = GenerationPipelineBuilder.createBuilder(sink).parallelism(2).build();
+
+        var error = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(StackOverflowError.class, () -> pipeline.run(IntStream.range(0, 10)
+                        .mapToObj(i -> DefinitionBuilder.createClassBuilder("com.acme", "C" + i)))));
+        assertEquals("C3", error.getMessage());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen;
+
+import com.jgencode.gen.type.AnnotationTypeBuilder;
+import com.jgencode.gen.type.ClassType;
+import com.jgencode.gen.type.ClassTypeBuilder;
+import com.jgencode.gen.type.NativeTypeBuilder;
+import com.jgencode.gen.values.Modifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Models that use every part of the rendering that could depend on hash codes: modifiers, imports from many packages,
+ * annotations with attributes, generics, interfaces and records. Its {@link #main(String[])} prints the source code
+ * and the fingerprints, so other JVMs can be compared with the one of the test.
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+public final class RenderedModels {
+
+    private RenderedModels() {
+    }
+
+    /**
+     *
+     * @return the definition builders of the models
+     */
+    static List<DefinitionBuilder> createBuilders() {
+        List<DefinitionBuilder> builders = new ArrayList<>();
+
+        var entity = (ClassDefinitionBuilder) DefinitionBuilder.createClassBuilder("com.example.model", "Person");
+        entity.addModifier(Modifier.FINAL);
+        entity.addModifier(Modifier.STATIC);
+        entity.addModifier(Modifier.PUBLIC);
+        entity.addAnnotationType(AnnotationTypeBuilder.newBuilder()
+                .classType(type("jakarta.persistence", "Table"))
+                .addAttribute("name", "person")
+                .addAttribute("schema", "public")
+                .addAttribute("size", 10)
+                .addAttribute("type", type("java.util", "UUID"))
+                .build());
+        entity.classExtended(type("com.example.base", "BaseEntity<java.util.UUID>"));
+        entity.addInterfaceImplements(type("java.io", "Serializable"));
+        entity.addInterfaceImplements(type("java.lang", "Comparable<Person>"));
+        for (int i = 0; i < 40; i++) {
+            entity.addField(FieldDefinitionBuilder.createBuilder()
+                    .fieldName("field" + i)
+                    .addModifier(Modifier.PRIVATE)
+                    .addModifier(Modifier.FINAL)
+                    .classType(type("com.example.p" + (i * 7919 % 97), "Type" + i))
+                    .getter(i % 2 == 0)
+                    .setter(i % 3 == 0)
+                    .build());
+        }
+        entity.addField(FieldDefinitionBuilder.createBuilder()
+                .fieldName("values")
+                .addModifier(Modifier.PROTECTED)
+                .classType(type("java.util", "Map<String, java.time.LocalDate>"))
+                .build());
+        entity.addConstructor(ConstructorDefinitionBuilder.createBuilder()
+                .addModifier(Modifier.PUBLIC)
+                .addParameter(ParameterDefinitionBuilder.newBuilder().parameterName("id")
+                        .parameterType(type("java.util", "UUID")).build())
+                .body("this.id = id;")
+                .build());
+        entity.addMethod(MethodDefinitionBuilder.createBuilder()
+                .name("create")
+                .addModifier(Modifier.STATIC)
+                .addModifier(Modifier.FINAL)
+                .addModifier(Modifier.PUBLIC)
+                .returnClassType(type("java.util", "Optional<Person>"))
+                .addParameter(ParameterDefinitionBuilder.newBuilder().parameterName("count")
+                        .parameterType(NativeTypeBuilder.newBuilder().name("int").build()).build())
+                .body(CodeBlock.of("return $T.empty();\n", type("java.util", "Optional")))
+                .build());
+        builders.add(entity);
+
+        var repository = (InterfaceDefinitionBuilder) DefinitionBuilder.createInterfaceBuilder("com.example.repo",
+                "PersonRepository");
+        repository.addModifier(Modifier.PUBLIC);
+        repository.addInterfaceExtend(type("org.springframework.data", "CrudRepository<com.example.model.Person, "
+                + "java.util.UUID>"));
+        repository.addInterfaceExtend(type("com.example.base", "Auditable"));
+        repository.addMethod(MethodDefinitionBuilder.createBuilder()
+                .name("findByName")
+                .isAbstract(true)
+                .returnClassType(type("java.util", "List<com.example.model.Person>"))
+                .addParameter(ParameterDefinitionBuilder.newBuilder().parameterName("name")
+                        .parameterType(type(null, "String")).build())
+                .build());
+        builders.add(repository);
+
+        var record = DefinitionBuilder.createRecordBuilder("com.example.dto", "PersonDto");
+        record.addModifier(Modifier.PUBLIC);
+        record.addField(FieldDefinitionBuilder.createBuilder().fieldName("id").classType(type("java.util", "UUID"))
+                .build());
+        record.addField(FieldDefinitionBuilder.createBuilder().fieldName("born")
+                .classType(type("java.time", "LocalDate")).build());
+        builders.add(record);
+        return builders;
+    }
+
+    private static ClassType type(String packageName, String className) {
+        return ClassTypeBuilder.newBuilder().packageName(packageName).className(className).build();
+    }
+
+    /**
+     * Renders the models
+     *
+     * @return the source code and the fingerprint of every model
+     */
+    static String render() {
+        var output = new StringBuilder();
+        for (DefinitionBuilder builder : createBuilders()) {
+            output.append(builder.getSourceFileName()).append(' ').append(builder.fingerprint()).append('\n');
+            output.append(String.join("\n", builder.build().getCodeLines())).append('\n');
+        }
+        return output.toString();
+    }
+
+    /**
+     * Prints the rendered models
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        System.out.print(render());
+    }
+}
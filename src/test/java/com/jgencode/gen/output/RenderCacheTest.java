@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.output;
+
+import com.jgencode.gen.DefinitionBuilder;
+import com.jgencode.gen.DefinitionBuilder.Definition;
+import com.jgencode.gen.FieldDefinitionBuilder;
+import com.jgencode.gen.type.ClassTypeBuilder;
+import com.jgencode.gen.util.Fingerprint;
+import com.jgencode.gen.values.Modifier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+class RenderCacheTest {
+
+    private static final long MAX_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void missIsRenderedAndStoredThenHit() throws IOException {
+        var cache = new RenderCache(directory, MAX_BYTES);
+
+        var rendered = createBuilder("Person").renderCache(cache).build();
+        var cached = createBuilder("Person").renderCache(cache).build();
+
+        assertFalse(rendered.isFromRenderCache());
+        assertTrue(cached.isFromRenderCache());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getEntryCount());
+        assertEquals(rendered.getCodeLines(), cached.getCodeLines());
+    }
+
+    @Test
+    void cachedSourceIsWrittenWithoutDecoding() throws IOException {
+        var cache = new RenderCache(directory, MAX_BYTES);
+        var definitionBuilder = createBuilder("Person");
+        var definition = definitionBuilder.build();
+        cache.put(definitionBuilder.fingerprint(), definition);
+
+        var cachedSource = cache.get(definitionBuilder.fingerprint());
+        var cachedBytes = new ByteArrayOutputStream();
+        cachedSource.writeTo(cachedBytes);
+
+        assertArrayEquals(toBytes(definition), cachedBytes.toByteArray());
+        assertEquals(definition.getCharCount(), cachedSource.getCharCount());
+        assertEquals(definition.getLineCount(), cachedSource.getLineCount());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() throws IOException {
+        var definition = createBuilder("Person").build();
+        var first = new Fingerprint(0, 1);
+        var second = new Fingerprint(0, 2);
+        var third = new Fingerprint(0, 3);
+        var entrySize = entrySize(definition);
+        var cache = new RenderCache(directory, entrySize * 2);
+        cache.put(first, definition);
+        cache.put(second, definition);
+
+        assertNotNull(cache.get(first));
+        cache.put(third, definition);
+
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(first));
+        assertNotNull(cache.get(third));
+        assertEquals(entrySize * 2, cache.getSize());
+    }
+
+    @Test
+    void cachesSharingDirectoryCanPutSameEntry() throws Exception {
+        // two caches on the same directory act as two processes of the same machine
+        var caches = new RenderCache[]{new RenderCache(directory, MAX_BYTES), new RenderCache(directory, MAX_BYTES)};
+        var definitionBuilder = createBuilder("Person");
+        var definition = definitionBuilder.build();
+        var fingerprint = definitionBuilder.fingerprint();
+        ExecutorService executor = Executors.newFixedThreadPool(caches.length);
+        try {
+            var futures = new ArrayList<Future<Void>>();
+            for (RenderCache cache : caches) {
+                Callable<Void> puts = () -> {
+                    for (int i = 0; i < 50; i++) {
+                        cache.put(fingerprint, definition);
+                    }
+                    return null;
+                };
+                futures.add(executor.submit(puts));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertNotNull(caches[0].get(fingerprint));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private long entrySize(Definition definition) throws IOException {
+        var cache = new RenderCache(directory.resolve("size"), MAX_BYTES);
+        cache.put(new Fingerprint(0, 0), definition);
+        return cache.getSize();
+    }
+
+    private static byte[] toBytes(Definition definition) throws IOException {
+        var out = new ByteArrayOutputStream();
+        definition.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static DefinitionBuilder createBuilder(String className) {
+        var definitionBuilder = DefinitionBuilder.createClassBuilder("com.acme.model", className);
+        definitionBuilder.addModifier(Modifier.PUBLIC);
+        for (String field : new String[]{"id", "name", "email", "city"}) {
+            definitionBuilder.addField(FieldDefinitionBuilder.createBuilder().fieldName(field)
+                    .classType(ClassTypeBuilder.newBuilder().packageName("java.lang").className("String").build())
+                    .addModifier(Modifier.PRIVATE).getter(true).setter(true).build());
+        }
+        return definitionBuilder;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.output;
+
+import com.jgencode.gen.DefinitionBuilder;
+import com.jgencode.gen.GenerationBatchBuilder;
+import com.jgencode.gen.GenerationBatchBuilder.BatchResult;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+class ZipOutputSinkTest {
+
+    @Test
+    void sameDefinitionsProduceSameBytes() throws IOException {
+        var zip = writeZip(createBuilder("Person"));
+
+        assertArrayEquals(zip, writeZip(createBuilder("Person")));
+        try (var in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            assertEquals(LocalDateTime.of(1980, 2, 1, 0, 0), in.getNextEntry().getTimeLocal());
+        }
+    }
+
+    @Test
+    void duplicateEntryIsReportedAsFailure() throws IOException {
+        var out = new ByteArrayOutputStream();
+        BatchResult batchResult;
+        try (var sink = new ZipOutputSink(out)) {
+            batchResult = GenerationBatchBuilder.createBuilder(sink)
+                    .parallelism(1)
+                    .addDefinitionBuilder(createBuilder("Person"))
+                    .addDefinitionBuilder(createBuilder("Person"))
+                    .addDefinitionBuilder(createBuilder("Address"))
+                    .build()
+                    .run();
+        }
+
+        assertEquals(1, batchResult.getFailures().size());
+        assertInstanceOf(FileAlreadyExistsException.class, batchResult.getFailures().get(0).getError());
+        assertEquals(List.of("com/acme/Person.java", "com/acme/Address.java"), readEntryNames(out.toByteArray()));
+    }
+
+    private static DefinitionBuilder createBuilder(String className) {
+        return DefinitionBuilder.createClassBuilder("com.acme", className);
+    }
+
+    private static byte[] writeZip(DefinitionBuilder definitionBuilder) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var sink = new ZipOutputSink(out)) {
+            sink.write(definitionBuilder.build());
+        }
+        return out.toByteArray();
+    }
+
+    private static List<String> readEntryNames(byte[] zip) throws IOException {
+        var names = new ArrayList<String>();
+        try (var in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (var entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.type;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+class ClassTypeBuilderTest {
+
+    @Test
+    void parsedGenericTypeKeepsThePackageOfTheCaller() {
+        var supplier = ClassTypeBuilder.newBuilder().packageName("com.acme").className("Supplier<Foo>").build();
+        var optional = ClassTypeBuilder.newBuilder().packageName("com.acme").className("Optional<Foo>").build();
+
+        assertEquals("com.acme.Supplier", supplier.getFullClassName());
+        assertEquals("java.util.Optional", optional.getFullClassName());
+        assertEquals("com.acme",
+                ((ClassType) supplier.getGenerics().values().iterator().next()).getPackageName());
+    }
+
+    @Test
+    void jdkGenericClassesKeepTheirPackage() {
+        var list = ClassTypeBuilder.newBuilder().packageName("com.acme.model").className("List<Person>").build();
+        var stream = ClassTypeBuilder.newBuilder().packageName("com.acme.model").className("Stream<Person>").build();
+        var qualified = ClassTypeBuilder.newBuilder().packageName("com.acme.model")
+                .className("com.acme.util.List<Person>").build();
+
+        assertEquals("java.util.List", list.getFullClassName());
+        assertEquals("com.acme.model",
+                ((ClassType) list.getGenerics().values().iterator().next()).getPackageName());
+        assertEquals("java.util.stream.Stream", stream.getFullClassName());
+        assertEquals("com.acme.util.List", qualified.getFullClassName());
+    }
+
+    @Test
+    void parsedGenericTypeWithoutPackageTakesTheWellKnownOne() {
+        var list = ClassTypeBuilder.newBuilder().className("List<String>").build();
+        var supplier = ClassTypeBuilder.newBuilder().className("Supplier<String>").build();
+
+        assertEquals("java.util.List", list.getFullClassName());
+        assertEquals("java.util.function.Supplier", supplier.getFullClassName());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 Diego Silva diego.silva at apuntesdejava.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jgencode.gen.type;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ *
+ * @author Diego Silva diego.silva at apuntesdejava.com
+ */
+class ClassTypeTest {
+
+    private static final ClassType STRING = ClassTypeBuilder.newBuilder()
+            .packageName("java.lang").className("String").build();
+    private static final ClassType LONG = ClassTypeBuilder.newBuilder()
+            .packageName("java.lang").className("Long").build();
+
+    @Test
+    void genericsInDifferentOrderAreDifferentTypes() {
+        var keyFirst = ClassTypeBuilder.newBuilder().packageName("java.util").className("Map")
+                .addGeneric("K", STRING).addGeneric("V", LONG).build();
+        var valueFirst = ClassTypeBuilder.newBuilder().packageName("java.util").className("Map")
+                .addGeneric("V", LONG).addGeneric("K", STRING).build();
+
+        assertNotSame(keyFirst, valueFirst);
+        assertNotEquals(keyFirst, valueFirst);
+        assertEquals("Map<String,Long>", keyFirst.getClassNameWithGeneric());
+        assertEquals("Map<Long,String>", valueFirst.getClassNameWithGeneric());
+    }
+
+    @Test
+    void genericsInSameOrderAreInterned() {
+        var first = ClassTypeBuilder.newBuilder().packageName("java.util").className("Map")
+                .addGeneric("K", STRING).addGeneric("V", LONG).build();
+        var second = ClassTypeBuilder.newBuilder().packageName("java.util").className("Map")
+                .addGeneric("K", STRING).addGeneric("V", LONG).build();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void concurrentBuildersShareOneInstance() throws Exception {
+        Callable<List<ClassType>> build = () -> {
+            var built = new ArrayList<ClassType>();
+            for (int i = 0; i < 1000; i++) {
+                built.add(ClassTypeBuilder.newBuilder().packageName("com.acme.pool").className("Shared" + (i % 10))
+                        .build());
+            }
+            return built;
+        };
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<List<ClassType>>>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(build));
+            }
+            var expected = futures.get(0).get();
+            for (Future<List<ClassType>> future : futures) {
+                var built = future.get();
+                for (int i = 0; i < built.size(); i++) {
+                    assertSame(expected.get(i), built.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void unusedTypeIsCollected() throws InterruptedException {
+        var reference = new WeakReference<>(ClassTypeBuilder.newBuilder().packageName("com.acme.pool")
+                .className("Unused").build());
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(reference.get());
+        var rebuilt = ClassTypeBuilder.newBuilder().packageName("com.acme.pool").className("Unused").build();
+        assertSame(rebuilt, ClassTypeBuilder.newBuilder().packageName("com.acme.pool").className("Unused").build());
+    }
+}